@@ -10,7 +10,6 @@ import de.glueckscrew.gluecksroulette.hotkey.LuckyHotKeyHandler;
 import de.glueckscrew.gluecksroulette.io.LuckyIO;
 import de.glueckscrew.gluecksroulette.models.LuckyCourse;
 import de.glueckscrew.gluecksroulette.models.LuckyStudent;
-import de.glueckscrew.gluecksroulette.physics.LuckyPhysics;
 import de.glueckscrew.gluecksroulette.playground.LuckyPlayground;
 import de.glueckscrew.gluecksroulette.playground.LuckyPlaygroundListener;
 import de.glueckscrew.gluecksroulette.util.LuckyFileUtil;
@@ -113,6 +112,7 @@ public class LuckyControl extends Application implements LuckyPlaygroundListener
     public void stop() throws Exception {
         super.stop();
 
+        playground.getPhysics().stopThread();
         config.save();
         LOGGER.info("Good Bye!");
     }
@@ -136,7 +136,7 @@ public class LuckyControl extends Application implements LuckyPlaygroundListener
         });
 
         hotKeyHandler.register(config.getHotKey(LuckyConfig.Key.HOTKEY_HARD_RESET), () -> {
-            if (LuckyPhysics.getInstance().isSpinning()) return;
+            if (playground.getPhysics().isSpinning()) return;
 
             playground.hardReset();
             saveCourseFile();
@@ -147,13 +147,13 @@ public class LuckyControl extends Application implements LuckyPlaygroundListener
         });
 
         hotKeyHandler.register(config.getHotKey(LuckyConfig.Key.HOTKEY_REDUCE), () -> {
-            if (LuckyPhysics.getInstance().isSpinning()) return;
+            if (playground.getPhysics().isSpinning()) return;
 
             if (playground.reduceSelected(false, config.getInt(LuckyConfig.Key.MANUAL_WEIGHT_CHANGE)))
                 saveCourseFile();
         });
         hotKeyHandler.register(config.getHotKey(LuckyConfig.Key.HOTKEY_ENLARGE), () -> {
-            if (LuckyPhysics.getInstance().isSpinning()) return;
+            if (playground.getPhysics().isSpinning()) return;
 
             if (playground.enlargeSelected(false, config.getInt(LuckyConfig.Key.MANUAL_WEIGHT_CHANGE)))
                 saveCourseFile();
@@ -176,7 +176,7 @@ public class LuckyControl extends Application implements LuckyPlaygroundListener
             );
 
         hotKeyHandler.register(config.getHotKey(LuckyConfig.Key.HOTKEY_OPEN_COURSE_FILE), () -> {
-            if (LuckyPhysics.getInstance().isSpinning()) return;
+            if (playground.getPhysics().isSpinning()) return;
 
             FileChooser fileChooser = new FileChooser();
             if (lastCourseFile != null)
@@ -297,6 +297,13 @@ public class LuckyControl extends Application implements LuckyPlaygroundListener
         primaryStage.setTitle(playground.getCurrentCourse().getIdentifier());
     }
 
+    @Override
+    public void onSegmentSelected() {
+        LuckyStudent student = playground.getSelectedStudent();
+        if (student != null)
+            gui.showSelectedStudent(student);
+    }
+
     public static void main(String[] args) {
         launch(args);
     }
@@ -245,6 +245,16 @@ public class LuckyConfig {
         CAMERA_ROT_X(Double.class, -25d),
         CAMERA_ROT_Y(Double.class, 0d),
 
+        PHYSICS_THREAD(Boolean.class, false),
+        INSTANT_RESULT(Boolean.class, false),
+        INSTANT_RESULT_REPLAY_SECONDS(Integer.class, 3),
+        SPIN_DURATION_BOUNDED(Boolean.class, false),
+        // spins last up to about 20 seconds, the first one after a reset at least about 5
+        SPIN_DURATION_MIN_SECONDS(Double.class, 6d),
+        SPIN_DURATION_MAX_SECONDS(Double.class, 8d),
+        WHEEL_MERGED_MESH(Boolean.class, false),
+        WHEEL_LABEL_ATLAS(Boolean.class, false),
+
         ;
 
         @Getter
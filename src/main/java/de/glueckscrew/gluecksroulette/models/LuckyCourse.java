@@ -1,11 +1,16 @@
 package de.glueckscrew.gluecksroulette.models;
 
+import lombok.AccessLevel;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.Getter;
+import lombok.Setter;
+import lombok.ToString;
 
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.Random;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -13,32 +18,71 @@ import java.util.logging.Logger;
  * @author Florian Dahlitz, Dominique Lasserre
  */
 @Data
+@EqualsAndHashCode(exclude = "store")
+@ToString(exclude = "store")
 public class LuckyCourse implements Cloneable {
     private static Logger LOGGER = Logger.getLogger(LuckyCourse.class.getSimpleName());
 
     private static final String SERIALIZE_DELIMITER = "\n";
 
     private String identifier;
+    /**
+     * Views on the rows of the store, every view is created once on first access
+     */
     @Getter
     private List<LuckyStudent> students;
 
-    private int countStudentWeightLow;
-    private double studentWeightLowest;
+    /**
+     * Columnar storage of names and weights, also maintains the sampling engine and the weight aggregates
+     */
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private LuckyCourseStore store;
 
     public LuckyCourse(String identifier, List<LuckyStudent> students) {
         this.identifier = identifier;
-        this.students = students;
+        setStudents(students);
+    }
+
+    private LuckyCourse(String identifier, LuckyCourseStore store) {
+        this.identifier = identifier;
+        this.store = store;
+        this.students = store.asList();
         initWeights();
     }
 
+    /**
+     * moves the given students into the store of this course,
+     * the passed objects stay valid and become views on their row
+     */
+    public void setStudents(List<LuckyStudent> students) {
+        LuckyCourseStore newStore = new LuckyCourseStore(students.size());
+
+        for (LuckyStudent student : students) {
+            if (student == null) {
+                LOGGER.log(Level.WARNING, "Found an invalid student, skipping!");
+                continue;
+            }
+            newStore.adopt(student, newStore.add(student.getName(), student.getWeight()));
+        }
+
+        this.store = newStore;
+        this.students = newStore.asList();
+        initWeights();
+    }
+
+    public double getStudentWeight(int index) {
+        return store.getWeight(index);
+    }
+
     public String serialize() {
-        String serializedCourse = "";
+        StringBuilder serializedCourse = new StringBuilder();
 
         for (LuckyStudent student : this.getStudents()) {
-            serializedCourse += student.serialize() + "\n";
+            serializedCourse.append(student.serialize()).append(SERIALIZE_DELIMITER);
         }
 
-        return serializedCourse;
+        return serializedCourse.toString();
     }
 
     public static LuckyCourse deserialize(String data, String identifier) {
@@ -62,21 +106,10 @@ public class LuckyCourse implements Cloneable {
         } else {
             newWeight = oldWeight * manualWeight;
         }
-        student.setWeight(newWeight);
-        if (newWeight >= 1 && oldWeight < 1) {
-            --countStudentWeightLow;
-        }
-        if (studentWeightLowest == oldWeight) {
-            studentWeightLowest = newWeight;
-            for (LuckyStudent studentIx : students) {
-                if (studentIx.getWeight() < studentWeightLowest) {
-                    studentWeightLowest = studentIx.getWeight();
-                }
-            }
-        }
+        updateWeight(student, newWeight);
 
         LOGGER.log(Level.INFO, "enlarged student: " + student.getName());
-        if (countStudentWeightLow == students.size()) {
+        if (allWeightsLow()) {
             return normalizeWeights() * oldWeight;
         } else {
             return oldWeight;
@@ -92,16 +125,10 @@ public class LuckyCourse implements Cloneable {
         } else {
             newWeight = oldWeight / manualWeight;
         }
-        student.setWeight(newWeight);
-        if (oldWeight >= 1 && newWeight < 1) {
-            ++countStudentWeightLow;
-        }
-        if (studentWeightLowest > newWeight) {
-            studentWeightLowest = newWeight;
-        }
+        updateWeight(student, newWeight);
 
         LOGGER.log(Level.INFO, "reduced student: " + student.getName());
-        if (countStudentWeightLow == students.size()) {
+        if (allWeightsLow()) {
             return normalizeWeights() * oldWeight;
         } else {
             return oldWeight;
@@ -109,63 +136,84 @@ public class LuckyCourse implements Cloneable {
     }
 
     public double setStudentWeight(LuckyStudent student, double newWeight) {
-        double oldWeight = student.getWeight();
-        student.setWeight(newWeight);
-        if (oldWeight >= 1 && newWeight < 1) {
-            ++countStudentWeightLow;
-        } else if (newWeight >= 1 && oldWeight < 1) {
-            --countStudentWeightLow;
-        }
-        if (studentWeightLowest > newWeight) {
-            studentWeightLowest = newWeight;
-        }
-        if (countStudentWeightLow == students.size()) {
+        updateWeight(student, newWeight);
+        if (allWeightsLow()) {
             return normalizeWeights() * newWeight;
         } else {
             return newWeight;
         }
     }
 
+    /**
+     * draws a random student, every student is chosen proportionally to his weight
+     */
+    public LuckyStudent draw(Random random) {
+        if (students.isEmpty()) return null;
+        return students.get(store.getWeightTree().draw(random));
+    }
+
+    /**
+     * finds the student whose share of the total weight contains the given fraction,
+     * the students are laid out in list order, so a fraction of 0 belongs to the first student
+     *
+     * @param fraction value in [0, 1)
+     * @return index of the student or -1 if the course is empty
+     */
+    public int getStudentIndexAt(double fraction) {
+        LuckyWeightTree weightTree = store.getWeightTree();
+        return weightTree.find(fraction * weightTree.getTotal());
+    }
+
+    /**
+     * @return sum of all weights, O(1)
+     */
+    public double getWeightSum() {
+        return store.getWeightSum();
+    }
+
+    /**
+     * @return smallest weight of all students or 1 if the course is empty, O(1)
+     */
+    public double getStudentWeightLowest() {
+        return store.size() == 0 ? 1 : store.getWeightLowest();
+    }
+
+    /**
+     * @return number of students with a weight below 1, O(1)
+     */
+    public int getCountStudentWeightLow() {
+        return store.getLowCount();
+    }
+
+    private boolean allWeightsLow() {
+        return store.size() > 0 && store.getLowCount() == store.size();
+    }
+
+    private void updateWeight(LuckyStudent student, double newWeight) {
+        if (student.getStore() != store)
+            LOGGER.log(Level.SEVERE, "student " + student.getName() + " is not part of this course!");
+
+        // the store keeps its aggregates in sync
+        student.setWeight(newWeight);
+    }
+
     private double normalizeWeights() {
-        double factor = 1/studentWeightLowest;
-        for (LuckyStudent student : students) {
-            student.setWeight(student.getWeight()*factor);
-        }
-        countStudentWeightLow = 0;
-        return factor;
+        return store.normalizeWeights();
     }
 
     private void initWeights() {
-        countStudentWeightLow = 0;
-        studentWeightLowest = 1;
-
-        for (LuckyStudent student : students) {
-            double weight = student.getWeight();
-            if (weight < 1) {
-                ++countStudentWeightLow;
-                if (studentWeightLowest > weight) {
-                    studentWeightLowest = weight;
-                }
-            }
-        }
-        if (countStudentWeightLow == students.size()) {
+        store.buildAggregates();
+        if (allWeightsLow()) {
             normalizeWeights();
         }
     }
 
     public void resetWeights() {
-        countStudentWeightLow = 0;
-        studentWeightLowest = 1;
-
-        students.forEach(student -> student.setWeight(1));
+        store.fillWeights(1);
     }
 
     @Override
     public LuckyCourse clone() {
-        List<LuckyStudent> clonedStudents = new ArrayList<>();
-
-        students.forEach(student -> clonedStudents.add(student.clone()));
-
-        return new LuckyCourse(identifier, clonedStudents);
+        return new LuckyCourse(identifier, store.copy());
     }
 }
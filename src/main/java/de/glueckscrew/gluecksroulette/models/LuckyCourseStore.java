@@ -0,0 +1,261 @@
+package de.glueckscrew.gluecksroulette.models;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * Columnar storage of the students of a course.
+ * Every student is a row in a name table and a weight array, LuckyStudent objects are only views on such a row.
+ * This way sweeps over all weights are plain array loops and a student costs a name reference and a double.
+ *
+ * Sum, minimum and the number of weights below LOW_WEIGHT are maintained on every weight change,
+ * so none of them needs a sweep.
+ *
+ * The weights array holds raw weights, the effective weight of a student is his raw weight times scale.
+ * Normalizing all weights therefore only changes scale and never touches the array.
+ */
+class LuckyCourseStore {
+    static final double LOW_WEIGHT = 1;
+
+    private static final int MIN_CAPACITY = 1;
+
+    /**
+     * Once the scale grows beyond this limit, it is folded into the raw weights and the aggregates are rebuilt.
+     * Raw weights stay within a bounded factor of the effective ones this way,
+     * so the rounding errors of the weight tree stay relative to the current weights
+     */
+    private static final double MAX_SCALE = 0x1p20;
+
+    private String[] names;
+    private double[] weights;
+    // views handed out by asList(), created on first access and reused afterwards
+    private LuckyStudent[] views;
+    private int size;
+
+    private final StudentList list = new StudentList();
+
+    private double scale = 1;
+    /**
+     * raw weight below which a student counts as low, this is LOW_WEIGHT / scale
+     * but kept separately so it is exact right after a normalization
+     */
+    private double lowThreshold = LOW_WEIGHT;
+
+    /**
+     * Sampling engine over the weights, also provides the sum.
+     * Kept in sync by setWeight() once it is built, same goes for minTree and lowCount
+     */
+    private LuckyWeightTree weightTree;
+    private LuckyMinTree minTree;
+    private int lowCount;
+
+    LuckyCourseStore(int capacity) {
+        capacity = Math.max(capacity, MIN_CAPACITY);
+        names = new String[capacity];
+        weights = new double[capacity];
+        views = new LuckyStudent[capacity];
+    }
+
+    /**
+     * appends a new row, the aggregates are dropped and have to be rebuilt
+     *
+     * @return row of the new student
+     */
+    int add(String name, double weight) {
+        if (size == weights.length) {
+            int capacity = size * 2;
+            names = Arrays.copyOf(names, capacity);
+            weights = Arrays.copyOf(weights, capacity);
+            views = Arrays.copyOf(views, capacity);
+        }
+
+        names[size] = name;
+        weights[size] = weight / scale;
+        weightTree = null;
+        minTree = null;
+
+        return size++;
+    }
+
+    int size() {
+        return size;
+    }
+
+    String getName(int row) {
+        return names[checkRow(row)];
+    }
+
+    void setName(int row, String name) {
+        names[checkRow(row)] = name;
+    }
+
+    /**
+     * @return effective weight of row
+     */
+    double getWeight(int row) {
+        return weights[checkRow(row)] * scale;
+    }
+
+    /**
+     * @param weight effective weight of row
+     */
+    void setWeight(int row, double weight) {
+        checkRow(row);
+        double oldWeight = weights[row];
+        double newWeight = weight / scale;
+        weights[row] = newWeight;
+
+        if (weightTree == null) return;
+
+        weightTree.add(row, newWeight - oldWeight);
+        // the weights may have shrunk far below the ones added before, their rounding errors are cleared then
+        if (weightTree.isDrifted())
+            weightTree.rebuild(weights, size);
+        minTree.set(row, newWeight);
+        if (oldWeight >= lowThreshold && newWeight < lowThreshold) {
+            ++lowCount;
+        } else if (newWeight >= lowThreshold && oldWeight < lowThreshold) {
+            --lowCount;
+        }
+    }
+
+    /**
+     * scales all weights so the lowest effective weight becomes LOW_WEIGHT, O(1)
+     *
+     * @return factor all effective weights were multiplied with
+     */
+    double normalizeWeights() {
+        getWeightTree();
+        double lowestRaw = minTree.getMin();
+        double newScale = LOW_WEIGHT / lowestRaw;
+        double factor = newScale / scale;
+
+        scale = newScale;
+        lowThreshold = lowestRaw;
+        lowCount = 0;
+
+        if (scale > MAX_SCALE)
+            foldScale();
+
+        return factor;
+    }
+
+    /**
+     * sets every weight to weight and rebuilds the aggregates
+     */
+    void fillWeights(double weight) {
+        Arrays.fill(weights, 0, size, weight);
+        scale = 1;
+        lowThreshold = LOW_WEIGHT;
+        buildAggregates();
+    }
+
+    void buildAggregates() {
+        weightTree = new LuckyWeightTree(weights, size);
+        minTree = new LuckyMinTree(weights, size);
+
+        lowCount = 0;
+        for (int i = 0; i < size; i++) {
+            if (weights[i] < lowThreshold)
+                ++lowCount;
+        }
+    }
+
+    /**
+     * multiplies the scale into the raw weights, O(n) but only needed once the weights shrank by 2^20
+     */
+    private void foldScale() {
+        for (int i = 0; i < size; i++) {
+            weights[i] *= scale;
+        }
+        lowThreshold *= scale;
+        scale = 1;
+        buildAggregates();
+    }
+
+    LuckyWeightTree getWeightTree() {
+        if (weightTree == null)
+            buildAggregates();
+        return weightTree;
+    }
+
+    /**
+     * @return sum of all effective weights
+     */
+    double getWeightSum() {
+        return getWeightTree().getTotal() * scale;
+    }
+
+    /**
+     * @return smallest effective weight or positive infinity if the store is empty
+     */
+    double getWeightLowest() {
+        getWeightTree();
+        return minTree.getMin() * scale;
+    }
+
+    /**
+     * @return number of weights below LOW_WEIGHT
+     */
+    int getLowCount() {
+        getWeightTree();
+        return lowCount;
+    }
+
+    LuckyCourseStore copy() {
+        LuckyCourseStore copy = new LuckyCourseStore(size);
+        System.arraycopy(names, 0, copy.names, 0, size);
+        System.arraycopy(weights, 0, copy.weights, 0, size);
+        copy.size = size;
+        copy.scale = scale;
+        copy.lowThreshold = lowThreshold;
+        return copy;
+    }
+
+    /**
+     * moves the student into the given row, asList() hands him out as the view of that row from now on
+     */
+    void adopt(LuckyStudent student, int row) {
+        student.bind(this, checkRow(row));
+        views[row] = student;
+    }
+
+    /**
+     * @return list of views on the rows of this store, every view is created once on first access
+     */
+    List<LuckyStudent> asList() {
+        return list;
+    }
+
+    /**
+     * @return view on row, a view that was moved into another store meanwhile is replaced
+     */
+    LuckyStudent getView(int row) {
+        LuckyStudent view = views[checkRow(row)];
+        if (view == null || view.getStore() != this || view.getRow() != row) {
+            view = new LuckyStudent(this, row);
+            views[row] = view;
+        }
+        return view;
+    }
+
+    private int checkRow(int row) {
+        if (row < 0 || row >= size)
+            throw new IndexOutOfBoundsException("Row: " + row + ", Size: " + size);
+        return row;
+    }
+
+    private class StudentList extends AbstractList<LuckyStudent> implements RandomAccess {
+        @Override
+        public LuckyStudent get(int index) {
+            return getView(index);
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package de.glueckscrew.gluecksroulette.models;
+
+/**
+ * Tournament tree over the student weights of a course.
+ * Every inner node holds the smaller value of its two children, so the minimum is always at the root.
+ * Updates run in O(log n), reading the minimum in O(1)
+ */
+public class LuckyMinTree {
+    /**
+     * 1-based heap layout, leaves start at index leafOffset, unused leaves hold positive infinity
+     */
+    private final double[] tree;
+
+    private final int size;
+    private final int leafOffset;
+
+    public LuckyMinTree(double[] values) {
+        this(values, values.length);
+    }
+
+    /**
+     * builds the tree bottom-up in O(n) from the first size entries of values
+     */
+    public LuckyMinTree(double[] values, int size) {
+        this.size = size;
+        this.leafOffset = size <= 1 ? 1 : Integer.highestOneBit(size - 1) << 1;
+        this.tree = new double[leafOffset * 2];
+
+        for (int i = 0; i < leafOffset; i++) {
+            tree[leafOffset + i] = i < size ? values[i] : Double.POSITIVE_INFINITY;
+        }
+        for (int i = leafOffset - 1; i > 0; i--) {
+            tree[i] = Math.min(tree[2 * i], tree[2 * i + 1]);
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return smallest value or positive infinity if the tree is empty
+     */
+    public double getMin() {
+        return size == 0 ? Double.POSITIVE_INFINITY : tree[1];
+    }
+
+    public void set(int index, double value) {
+        if (index < 0 || index >= size)
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+
+        int i = leafOffset + index;
+        tree[i] = value;
+        for (i >>= 1; i > 0; i >>= 1) {
+            double min = Math.min(tree[2 * i], tree[2 * i + 1]);
+            if (tree[i] == min) break;
+            tree[i] = min;
+        }
+    }
+}
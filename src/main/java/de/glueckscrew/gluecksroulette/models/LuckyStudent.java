@@ -1,28 +1,26 @@
 package de.glueckscrew.gluecksroulette.models;
 
-import lombok.Data;
-import lombok.Getter;
-import lombok.Setter;
-
 import java.util.Locale;
+import java.util.Objects;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
 /**
+ * Lightweight view on a row of a LuckyCourseStore.
+ * A student which is not part of a course yet keeps his name and weight in plain fields,
+ * as soon as he is added to a course, he is moved into the store of that course.
+ *
  * @author Florian Dahlitz
  */
-@Data
 public class LuckyStudent implements Cloneable {
     private static final Logger LOGGER = Logger.getLogger(LuckyStudent.class.getSimpleName());
 
     private static final String SERIALIZE_DELIMITER = ",";
 
-    @Getter
+    // null as long as the student isn't part of a course, name and weight are used then
+    private LuckyCourseStore store;
+    private int row;
     private String name;
-    @Getter
-    private String shortName;
-    @Getter
-    @Setter
     private double weight;
 
     private LuckyStudent() {
@@ -34,10 +32,69 @@ public class LuckyStudent implements Cloneable {
     }
 
     public LuckyStudent(String name, double weight) {
-        setName(name);
+        this.name = name;
         this.weight = weight;
     }
 
+    LuckyStudent(LuckyCourseStore store, int row) {
+        this.store = store;
+        this.row = row;
+    }
+
+    /**
+     * moves this view to another row, used when the student is added to a course
+     */
+    void bind(LuckyCourseStore store, int row) {
+        this.store = store;
+        this.row = row;
+        name = null;
+    }
+
+    LuckyCourseStore getStore() {
+        return store;
+    }
+
+    int getRow() {
+        return row;
+    }
+
+    public String getName() {
+        return store == null ? name : store.getName(row);
+    }
+
+    public void setName(String name) {
+        if (store == null) {
+            this.name = name;
+        } else {
+            store.setName(row, name);
+        }
+    }
+
+    /**
+     * @return name with all first names abbreviated, computed on demand
+     */
+    public String getShortName() {
+        String name = getName();
+
+        int lastSpace = name.lastIndexOf(" ");
+        if (lastSpace > 0) {
+            return name.substring(0, lastSpace).replaceAll("([A-Za-z])[A-Za-z]*", "$1.") + name.substring(lastSpace);
+        }
+        return name;
+    }
+
+    public double getWeight() {
+        return store == null ? weight : store.getWeight(row);
+    }
+
+    public void setWeight(double weight) {
+        if (store == null) {
+            this.weight = weight;
+        } else {
+            store.setWeight(row, weight);
+        }
+    }
+
     public String serialize() {
         return String.format(Locale.US, "%s%s%f", this.getName(), SERIALIZE_DELIMITER, this.getWeight());
     }
@@ -71,17 +128,25 @@ public class LuckyStudent implements Cloneable {
 
     @Override
     public LuckyStudent clone() {
-        return new LuckyStudent(name, weight);
+        return new LuckyStudent(getName(), getWeight());
     }
 
-    public void setName(String name) {
-        this.name = name;
+    @Override
+    public boolean equals(Object o) {
+        if (o == this) return true;
+        if (!(o instanceof LuckyStudent)) return false;
 
-        int lastSpace = name.lastIndexOf(" ");
-        if (lastSpace > 0) {
-            this.shortName = name.substring(0, lastSpace).replaceAll("([A-Za-z])[A-Za-z]*", "$1.") + name.substring(lastSpace);
-        } else {
-            this.shortName = name;
-        }
+        LuckyStudent other = (LuckyStudent) o;
+        return Objects.equals(getName(), other.getName()) && Double.compare(getWeight(), other.getWeight()) == 0;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(getName(), getWeight());
+    }
+
+    @Override
+    public String toString() {
+        return "LuckyStudent(name=" + getName() + ", weight=" + getWeight() + ")";
     }
 }
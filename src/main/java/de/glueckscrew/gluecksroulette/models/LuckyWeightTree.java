@@ -0,0 +1,149 @@
+package de.glueckscrew.gluecksroulette.models;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Fenwick tree over the student weights of a course.
+ * Updates, prefix sums and weighted draws all run in O(log n),
+ * the total weight is kept up to date and can be read in O(1)
+ *
+ * Every add() leaves a rounding error in the sums it touches, which never goes away on its own.
+ * Once the weights shrank far below the ones added before, these errors would outweigh them,
+ * so the tree keeps a bound of its error and tells by isDrifted() when it has to be rebuilt.
+ */
+public class LuckyWeightTree {
+    /**
+     * error of the sums relative to the total up to which the tree counts as precise
+     */
+    private static final double MAX_RELATIVE_ERROR = 1e-9;
+
+    /**
+     * 1-based fenwick array, tree[i] holds the sum of the weights (i - lowbit(i), i]
+     */
+    private double[] tree;
+
+    private int size;
+
+    /**
+     * highest power of two which is not larger than size, used as first step of the descent in find()
+     */
+    private int topStep;
+
+    /**
+     * roundings of one add(): one per level of the tree, one for the total and one for the delta itself
+     */
+    private int roundingsPerAdd;
+
+    private double total;
+
+    /**
+     * bound of the rounding error add() left in any sum since the tree was built
+     */
+    private double errorBound;
+
+    public LuckyWeightTree(double[] weights) {
+        this(weights, weights.length);
+    }
+
+    /**
+     * builds the tree bottom-up in O(n) from the first size entries of weights
+     */
+    public LuckyWeightTree(double[] weights, int size) {
+        rebuild(weights, size);
+    }
+
+    /**
+     * builds the tree again in O(n) from the first size entries of weights, this clears the error bound
+     */
+    public void rebuild(double[] weights, int size) {
+        if (tree == null || tree.length != size + 1) {
+            tree = new double[size + 1];
+        } else {
+            Arrays.fill(tree, 0);
+        }
+        this.size = size;
+        this.topStep = size == 0 ? 0 : Integer.highestOneBit(size);
+        this.roundingsPerAdd = Integer.numberOfTrailingZeros(Math.max(topStep, 1)) + 3;
+        total = 0;
+        errorBound = 0;
+
+        for (int i = 1; i <= size; i++) {
+            tree[i] += weights[i - 1];
+            total += weights[i - 1];
+
+            int parent = i + (i & -i);
+            if (parent <= size)
+                tree[parent] += tree[i];
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public double getTotal() {
+        return total;
+    }
+
+    /**
+     * @return true if the sums may be off by more than MAX_RELATIVE_ERROR of the total, rebuild() the tree then
+     */
+    public boolean isDrifted() {
+        return errorBound > MAX_RELATIVE_ERROR * Math.abs(total);
+    }
+
+    /**
+     * adds delta to the weight at index
+     */
+    public void add(int index, double delta) {
+        if (index < 0 || index >= size)
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+
+        double before = total;
+        for (int i = index + 1; i <= size; i += i & -i) {
+            tree[i] += delta;
+        }
+        total += delta;
+
+        // no sum touched is larger than the total, before or after the change
+        errorBound += roundingsPerAdd * Math.ulp(Math.max(Math.abs(before), Math.abs(total)));
+    }
+
+    /**
+     * @return sum of all weights in front of index (exclusive)
+     */
+    public double prefixSum(int index) {
+        double sum = 0;
+        for (int i = Math.min(index, size); i > 0; i -= i & -i) {
+            sum += tree[i];
+        }
+        return sum;
+    }
+
+    /**
+     * finds the index i with prefixSum(i) <= target < prefixSum(i + 1)
+     * targets outside of [0, total) are clamped to the first or last index
+     */
+    public int find(double target) {
+        if (size == 0) return -1;
+
+        int position = 0;
+        for (int step = topStep; step > 0; step >>= 1) {
+            int next = position + step;
+            if (next <= size && tree[next] <= target) {
+                position = next;
+                target -= tree[next];
+            }
+        }
+
+        return Math.min(position, size - 1);
+    }
+
+    /**
+     * draws a random index, every index is chosen proportionally to its weight
+     */
+    public int draw(Random random) {
+        return find(random.nextDouble() * total);
+    }
+}
@@ -0,0 +1,286 @@
+package de.glueckscrew.gluecksroulette.physics;
+
+import de.glueckscrew.gluecksroulette.models.LuckyCourse;
+import de.glueckscrew.gluecksroulette.util.LuckyFileUtil;
+import lombok.Getter;
+
+import java.io.File;
+import java.io.PrintStream;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+
+/**
+ * Headless Monte Carlo check whether the physical spin picks students in proportion to their weights.
+ * Spins are simulated in parallel on a fork/join pool, every leaf task steps a LuckyPhysicsWorld of its own,
+ * the fraction of the wheel the ball stopped on is mapped to a student by LuckyCourse.getStudentIndexAt(),
+ * which searches the same prefix sums of the weights the LuckySegmentIndex of the playground is built from.
+ *
+ * Every task splits its generator off the one of its parent, so a run is reproducible from its seed
+ * while the workers never share a generator.
+ *
+ * Spins may be bounded to a window of steps like the playground does with a spin duration,
+ * this checks that choosing spins by their duration keeps the wheel fair.
+ *
+ * Run from the command line with: course file [spins [seed [min seconds max seconds]]]
+ *
+ * @author Paul Weisser
+ */
+public class LuckyFairnessSimulator {
+    private static final Logger LOGGER = Logger.getLogger(LuckyFairnessSimulator.class.getSimpleName());
+
+    private static final long DEFAULT_SPINS = 1_000_000;
+    /**
+     * spins simulated by one leaf task, large enough to outweigh forking and creating the world
+     */
+    private static final long SPINS_PER_TASK = 2_000;
+    private static final int TICK_BATCH = 64;
+    /**
+     * a spin that didn't stop after this many ticks counts as lost
+     */
+    private static final int MAX_TICKS_PER_SPIN = 100_000;
+
+    @Getter
+    private final LuckyCourse course;
+    private final ForkJoinPool pool;
+
+    //window of steps the spins have to stop within, unbounded if maxSpinSteps is 0
+    private long minSpinSteps;
+    private long maxSpinSteps;
+
+    public LuckyFairnessSimulator(LuckyCourse course) {
+        this(course, ForkJoinPool.commonPool());
+    }
+
+    public LuckyFairnessSimulator(LuckyCourse course, ForkJoinPool pool) {
+        this.course = course;
+        this.pool = pool;
+    }
+
+    public void setSpinSteps(long minSpinSteps, long maxSpinSteps) {
+        this.minSpinSteps = minSpinSteps;
+        this.maxSpinSteps = maxSpinSteps;
+    }
+
+    /**
+     * @return number of spins every student was picked by, the additional last entry counts lost spins
+     */
+    public long[] run(long spins) {
+        return run(spins, System.nanoTime());
+    }
+
+    /**
+     * @return number of spins every student was picked by, the additional last entry counts lost spins
+     */
+    public long[] run(long spins, long seed) {
+        // build the weight aggregates before the workers start reading them
+        course.getWeightSum();
+        return pool.invoke(new SpinTask(spins, LuckyRandom.create(seed)));
+    }
+
+    /**
+     * @return Pearson's chi-square statistic of hits against the weights of the course, lost spins are ignored
+     */
+    public double getChiSquare(long[] hits) {
+        int students = course.getStudents().size();
+        long stopped = 0;
+        for (int i = 0; i < students; i++) {
+            stopped += hits[i];
+        }
+
+        double sum = course.getWeightSum();
+        double chiSquare = 0;
+        for (int i = 0; i < students; i++) {
+            double expected = stopped * course.getStudentWeight(i) / sum;
+            double diff = hits[i] - expected;
+            chiSquare += diff * diff / expected;
+        }
+        return chiSquare;
+    }
+
+    public void printReport(long[] hits, PrintStream out) {
+        int students = course.getStudents().size();
+        long stopped = 0;
+        for (int i = 0; i < students; i++) {
+            stopped += hits[i];
+        }
+        double sum = course.getWeightSum();
+
+        out.println(String.format("%-30s %10s %10s %10s %12s", "student", "weight", "expected", "observed", "chi-square"));
+        for (int i = 0; i < students; i++) {
+            double expected = course.getStudentWeight(i) / sum;
+            double observed = stopped == 0 ? 0 : (double) hits[i] / stopped;
+            double diff = hits[i] - stopped * expected;
+            out.println(String.format("%-30s %10.4f %9.4f%% %9.4f%% %12.4f", course.getStudents().get(i).getName(),
+                    course.getStudentWeight(i), expected * 100, observed * 100, diff * diff / (stopped * expected)));
+        }
+
+        double chiSquare = getChiSquare(hits);
+        int degreesOfFreedom = students - 1;
+        out.println(String.format("%d spins stopped, %d lost", stopped, hits[students]));
+        out.println(String.format("chi-square %.4f with %d degrees of freedom, p-value %.4f",
+                chiSquare, degreesOfFreedom, getPValue(chiSquare, degreesOfFreedom)));
+    }
+
+    /**
+     * @return probability of a chi-square statistic at least this large if the wheel is fair
+     */
+    public static double getPValue(double chiSquare, int degreesOfFreedom) {
+        if (degreesOfFreedom <= 0) return 1;
+        if (chiSquare <= 0) return 1;
+        return upperRegularizedGamma(degreesOfFreedom / 2d, chiSquare / 2);
+    }
+
+    static LuckyPhysicsWorld createWorld() {
+        LuckyPhysicsWorld world = new LuckyPhysicsWorld();
+        world.setBallRadius(LuckyWheelGeometry.BALL_RADIUS);
+        world.setWheelY(LuckyWheelGeometry.WHEEL_DEFAULT_Y);
+        world.setFrameHeight(LuckyWheelGeometry.getFrameHeight(LuckyWheelGeometry.WHEEL_RADIUS));
+        world.reset();
+        return world;
+    }
+
+    /**
+     * spins one after another like the playground does, every spin starts where the last ball came to rest
+     */
+    private long[] simulate(long spins, LuckyRandom random) {
+        int students = course.getStudents().size();
+        long[] hits = new long[students + 1];
+
+        LuckyPhysicsWorld world = createWorld();
+        world.setWheelAngle(360 * random.nextDouble());
+
+        // the result is read at the moment the ball stops, the wheel may still be turning afterwards
+        double[] stopFraction = new double[1];
+        world.setListener(() -> stopFraction[0] = world.getBallFraction());
+
+        for (long spin = 0; spin < spins; spin++) {
+            stopFraction[0] = -1;
+            if (maxSpinSteps > 0) {
+                LuckySpinDurationSolver.solve(world, random.nextLong(), minSpinSteps, maxSpinSteps).spin(world);
+            } else {
+                world.spin(random);
+            }
+            for (int ticks = 0; world.isSpinning() && ticks < MAX_TICKS_PER_SPIN; ticks += TICK_BATCH) {
+                world.tick(TICK_BATCH);
+            }
+
+            if (stopFraction[0] < 0) {
+                ++hits[students];
+                world.reset();
+            } else {
+                ++hits[course.getStudentIndexAt(stopFraction[0])];
+            }
+        }
+        return hits;
+    }
+
+    private class SpinTask extends RecursiveTask<long[]> {
+        private final long spins;
+        private final LuckyRandom random;
+
+        SpinTask(long spins, LuckyRandom random) {
+            this.spins = spins;
+            this.random = random;
+        }
+
+        @Override
+        protected long[] compute() {
+            if (spins <= SPINS_PER_TASK)
+                return simulate(spins, random);
+
+            SpinTask left = new SpinTask(spins / 2, random.split());
+            SpinTask right = new SpinTask(spins - spins / 2, random);
+            left.fork();
+            long[] hits = right.compute();
+            long[] leftHits = left.join();
+            for (int i = 0; i < hits.length; i++) {
+                hits[i] += leftHits[i];
+            }
+            return hits;
+        }
+    }
+
+    /**
+     * Q(a, x) by its series for small x and its continued fraction otherwise
+     */
+    private static double upperRegularizedGamma(double a, double x) {
+        double logPrefix = -x + a * Math.log(x) - logGamma(a);
+
+        if (x < a + 1) {
+            double term = 1 / a;
+            double sum = term;
+            for (int n = 1; n < 1000 && Math.abs(term) > Math.abs(sum) * 1e-15; n++) {
+                term *= x / (a + n);
+                sum += term;
+            }
+            return 1 - sum * Math.exp(logPrefix);
+        }
+
+        // modified Lentz's method
+        double tiny = 1e-300;
+        double b = x + 1 - a;
+        double c = 1 / tiny;
+        double d = 1 / b;
+        double h = d;
+        for (int n = 1; n < 1000; n++) {
+            double an = -n * (n - a);
+            b += 2;
+            d = an * d + b;
+            if (Math.abs(d) < tiny) d = tiny;
+            c = b + an / c;
+            if (Math.abs(c) < tiny) c = tiny;
+            d = 1 / d;
+            double delta = d * c;
+            h *= delta;
+            if (Math.abs(delta - 1) < 1e-15) break;
+        }
+        return h * Math.exp(logPrefix);
+    }
+
+    /**
+     * Lanczos approximation of ln(Gamma(x)) for x > 0
+     */
+    private static double logGamma(double x) {
+        double[] coefficients = {76.18009172947146, -86.50532032941677, 24.01409824083091,
+                -1.231739572450155, 0.1208650973866179e-2, -0.5395239384953e-5};
+        double y = x;
+        double tmp = x + 5.5;
+        tmp -= (x + .5) * Math.log(tmp);
+        double series = 1.000000000190015;
+        for (double coefficient : coefficients) {
+            series += coefficient / ++y;
+        }
+        return -tmp + Math.log(2.5066282746310005 * series / x);
+    }
+
+    public static void main(String[] args) {
+        if (args.length < 1) {
+            System.err.println("usage: LuckyFairnessSimulator <course file> [spins [seed [min seconds max seconds]]]");
+            return;
+        }
+
+        LuckyCourse course = LuckyFileUtil.loadCourse(new File(args[0]), LOGGER);
+        if (course == null || course.getStudents().isEmpty()) {
+            System.err.println("no students found in " + args[0]);
+            return;
+        }
+        long spins = args.length > 1 ? Long.parseLong(args[1]) : DEFAULT_SPINS;
+        long seed = args.length > 2 ? Long.parseLong(args[2]) : System.nanoTime();
+
+        LuckyFairnessSimulator simulator = new LuckyFairnessSimulator(course);
+        if (args.length > 4) {
+            simulator.setSpinSteps((long) (Double.parseDouble(args[3]) * LuckyPhysics.TICKS_PER_SECOND),
+                    (long) (Double.parseDouble(args[4]) * LuckyPhysics.TICKS_PER_SECOND));
+        }
+        long start = System.nanoTime();
+        long[] hits = simulator.run(spins, seed);
+        long duration = System.nanoTime() - start;
+
+        simulator.printReport(hits, System.out);
+        System.out.println(String.format("seed %d", seed));
+        System.out.println(String.format("%.0f spins/second on %d threads",
+                spins / (duration / (double) TimeUnit.SECONDS.toNanos(1)), ForkJoinPool.getCommonPoolParallelism()));
+    }
+}
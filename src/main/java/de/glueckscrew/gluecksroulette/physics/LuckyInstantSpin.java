@@ -0,0 +1,84 @@
+package de.glueckscrew.gluecksroulette.physics;
+
+import lombok.Getter;
+
+import java.util.function.Consumer;
+
+/**
+ * Outcome of a spin that was fast-forwarded on a copy of the world.
+ * Spinning the same seed from the same state is deterministic, so a second pass over the copy
+ * yields the exact states right before the ball stops and at the start of the replay.
+ *
+ * @author Paul Weisser
+ */
+@Getter
+class LuckyInstantSpin {
+    private static final int TICK_BATCH = 256;
+    /**
+     * a spin that didn't stop after this many steps is played out live instead
+     */
+    private static final int MAX_STEPS = 100_000;
+
+    /**
+     * state after all steps but the one in which the ball stops
+     */
+    private final LuckyPhysicsWorld beforeStop;
+    /**
+     * wheel angle after the step in which the ball stops, when nobody turns the wheel meanwhile
+     */
+    private final double wheelAngleAfterStop;
+    /**
+     * state the replay of the final steps starts from, null if there is no replay
+     */
+    private final LuckyPhysicsWorld replayStart;
+
+    private LuckyInstantSpin(LuckyPhysicsWorld beforeStop, double wheelAngleAfterStop, LuckyPhysicsWorld replayStart) {
+        this.beforeStop = beforeStop;
+        this.wheelAngleAfterStop = wheelAngleAfterStop;
+        this.replayStart = replayStart;
+    }
+
+    /**
+     * @param start       state the spin starts from, it is not changed
+     * @param replaySteps number of steps before the stop to replay, 0 for no replay
+     * @return outcome of the spin or null if the ball didn't stop within MAX_STEPS
+     */
+    static LuckyInstantSpin simulate(LuckyPhysicsWorld start, long seed, int replaySteps) {
+        return fastForward(start, world -> world.spin(seed), replaySteps);
+    }
+
+    /**
+     * like simulate(start, seed, replaySteps), but starts the spin with the given launch
+     */
+    static LuckyInstantSpin simulate(LuckyPhysicsWorld start, LuckySpinLaunch launch, int replaySteps) {
+        return fastForward(start, launch::spin, replaySteps);
+    }
+
+    private static LuckyInstantSpin fastForward(LuckyPhysicsWorld start, Consumer<LuckyPhysicsWorld> spin,
+                                                int replaySteps) {
+        // first pass: find the step the ball stops in
+        LuckyPhysicsWorld world = start.copy();
+        long[] stopStep = {-1};
+        world.setListener(() -> stopStep[0] = world.getSteps());
+        spin.accept(world);
+        while (world.isSpinning() && world.getSteps() < MAX_STEPS) {
+            world.tick(TICK_BATCH);
+        }
+        if (stopStep[0] < 0) return null;
+
+        // second pass: collect the states around the stop
+        long stepsBeforeStop = stopStep[0] - 1;
+        long replayFrom = Math.max(0, stepsBeforeStop - replaySteps);
+
+        world.copyFrom(start);
+        world.setListener(null);
+        spin.accept(world);
+        world.tick((int) replayFrom);
+        LuckyPhysicsWorld replayStart = replaySteps > 0 ? world.copy() : null;
+        world.tick((int) (stepsBeforeStop - replayFrom));
+        LuckyPhysicsWorld beforeStop = world.copy();
+        world.tick(1);
+
+        return new LuckyInstantSpin(beforeStop, world.getWheelAngle(), replayStart);
+    }
+}
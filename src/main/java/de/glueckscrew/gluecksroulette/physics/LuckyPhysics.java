@@ -1,22 +1,35 @@
 package de.glueckscrew.gluecksroulette.physics;
 
-import com.sun.javafx.geom.Vec3d;
 import de.glueckscrew.gluecksroulette.playground.LuckyBall;
 import de.glueckscrew.gluecksroulette.playground.LuckyFrame;
-import de.glueckscrew.gluecksroulette.playground.LuckyPlayground;
 import de.glueckscrew.gluecksroulette.playground.LuckyWheel;
+import javafx.application.Platform;
 import javafx.scene.transform.Rotate;
 import lombok.Getter;
-import lombok.Setter;
 
-import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
 /**
- * This class is used to calculate the movement of different physic-objects and handles their collisions.
- * It is implemented as a singleton, not because we need this as a global variable but to prevent two interfering physics
- * Greetings to Mr. Kruse at this point :)
+ * This class connects the simulated LuckyPhysicsWorld with the physic-objects of the scene graph.
+ * The simulation only steps on the world, sync() copies its state into the nodes once per rendered frame.
+ *
+ * The world is either stepped by the caller of tick() on the FX thread, or by a physics thread of its own
+ * (see startThread()). In the latter case only the physics thread touches the world: it publishes a
+ * LuckyPhysicsSnapshot after every step, commands of the FX thread are queued onto the physics thread
+ * and onBallStopped is delivered on the FX thread. Once the world is idle the physics thread stops stepping,
+ * the next command resumes it.
+ *
+ * Every instance steps a world of its own, so several wheels can spin side by side on different threads.
+ * getInstance() returns the default instance the GUI uses, it was a singleton once, greetings to Mr. Kruse at this point :)
  *
  * @author Paul Weisser
  */
@@ -25,40 +38,56 @@ public class LuckyPhysics {
     private static final Logger LOGGER = Logger.getLogger(LuckyPhysics.class.getSimpleName());
     private static LuckyPhysics instance;
 
+    /**
+     * The world always advances in steps of this duration, independent of the frame rate
+     */
+    public static final int TICKS_PER_SECOND = 60;
+    public static final long TICK_DURATION = TimeUnit.SECONDS.toNanos(1) / TICKS_PER_SECOND;
+    /**
+     * the physics thread stops stepping after the world was idle for this many steps, see isIdle()
+     */
+    private static final int IDLE_STEPS_UNTIL_PARKED = TICKS_PER_SECOND / 2;
 
-    //physics constants
-    private final static double COLLISION_REDUCTION = .85;
-    private final static double VERTICAL_BOUNCINESS = .5;
-    private final static double WHEEL_ROTATION_REDUCTION = .025;
-    private final static double GRAVITY = .15;
-    private final static double MINIMAL_WHEEL_ROTATION = .001;
-    private final static double WHEEL_MOMENTUM = .8;
-    private final static double BASE_WHEEL_SPEED = 7.5;
-    private final static double MINIMAL_BALL_SPEED = GRAVITY * 4; //smallest speed the ball should reach is one gravity-tick
-    private final static double MAX_BALL_SPEED = 30;
-    private final static double MINIMAL_BALL_STARTING_SPEED = 10;
-    private final static double MAX_WHEEL_SPEED = 4 * BASE_WHEEL_SPEED;
-
-    private final static int TICKS_UNTIL_BALL_COUNTS_AS_STOPPED = 15;
-
-    @Setter
     private LuckyFrame frame;
-    @Setter
     private LuckyWheel wheel;
-    @Setter
     private LuckyBall ball;
 
-    @Setter
     private LuckyPhysicsListener listener;
+
     @Getter
+    private LuckyPhysicsWorld world;
+
+    //state of the physics thread, null if the world is stepped by tick()
+    private ScheduledExecutorService executor;
+    private final AtomicReference<LuckyPhysicsSnapshot> snapshot = new AtomicReference<>();
+    //only accessed by the physics thread, set while a stop event is on its way to the FX thread
+    private boolean paused;
+    //only accessed by the physics thread, the scheduled steps are null while the thread is parked
+    private ScheduledFuture<?> stepping;
+    private int idleSteps;
+    //only accessed by the FX thread, set from the start of a threaded or instant spin until its stop was delivered
     private boolean spinning;
 
-    //private constructor to prevent a second instantiation
-    private LuckyPhysics() {
-        this.spinning = false;
+    //instant spin whose result is being delivered, its final steps are replayed afterwards, owned by the world thread
+    private LuckyInstantSpin pendingReplay;
+    //set while replaying a spin whose stop was already delivered, owned by the world thread
+    private boolean replaying;
+    //counts the spins and resets, a result computed in the background only lands if it still belongs
+    //to the current spin, owned by the world thread
+    private long spinGeneration;
+    //set while the result of an instant spin is computed, owned by the world thread
+    private boolean instantSpinPending;
+
+    //window of steps spins have to stop within, unbounded if maxSpinSteps is 0, only accessed by the FX thread
+    private long minSpinSteps;
+    private long maxSpinSteps;
+
+    public LuckyPhysics() {
+        this.world = new LuckyPhysicsWorld();
+        this.world.setListener(this::onWorldBallStopped);
     }
 
-    //access to the class
+    //access to the default instance, only call this on the FX thread
     public static LuckyPhysics getInstance() {
         if (LuckyPhysics.instance == null) {
             LuckyPhysics.instance = new LuckyPhysics();
@@ -66,6 +95,104 @@ public class LuckyPhysics {
         return LuckyPhysics.instance;
     }
 
+    /**
+     * sets the frame and copies its height into the world
+     */
+    public void setFrame(LuckyFrame frame) {
+        this.frame = frame;
+        if (frame != null)
+            world.setFrameHeight(frame.getHeight());
+    }
+
+    /**
+     * sets the wheel and copies its position, angle and speed into the world
+     */
+    public void setWheel(LuckyWheel wheel) {
+        this.wheel = wheel;
+        if (wheel == null) return;
+
+        if (wheel.getTransforms().isEmpty())
+            wheel.getTransforms().add(new Rotate(0, 0, 0, 0, Rotate.Y_AXIS));
+
+        world.setWheelY(wheel.getTranslateY());
+        world.setWheelSpeed(wheel.getRotationSpeed());
+        Rotate rotate = getWheelRotate();
+        if (rotate != null)
+            world.setWheelAngle(rotate.getAngle());
+    }
+
+    /**
+     * sets the ball and copies its radius, position and velocity into the world
+     */
+    public void setBall(LuckyBall ball) {
+        this.ball = ball;
+        if (ball == null) return;
+
+        world.setBallRadius(ball.getRadius());
+        world.setBallPosition(ball.getTranslateX(), ball.getTranslateY(), ball.getTranslateZ());
+        world.setVelocityX(ball.getVelocity().x);
+        world.setVelocityY(ball.getVelocity().y);
+        world.setVelocityZ(ball.getVelocity().z);
+    }
+
+    public void setListener(LuckyPhysicsListener listener) {
+        this.listener = listener;
+    }
+
+    public boolean isSpinning() {
+        return spinning || (isThreaded() ? snapshot.get().isSpinning() : world.isSpinning());
+    }
+
+    public boolean isThreaded() {
+        return executor != null;
+    }
+
+    /**
+     * @return true if neither the ball nor the wheel moves and no spin is on its way,
+     * stepping and syncing don't change anything then
+     */
+    public boolean isIdle() {
+        if (spinning) return false;
+        if (isThreaded()) {
+            LuckyPhysicsSnapshot latest = snapshot.get();
+            return !latest.isSpinning() && latest.getWheelSpeed() == 0;
+        }
+        return isWorldIdle();
+    }
+
+    //only called by the thread owning the world
+    private boolean isWorldIdle() {
+        return !world.isSpinning() && world.getWheelSpeed() == 0 && pendingReplay == null;
+    }
+
+    /**
+     * @return position of the ball along the x-axis as the FX thread may see it
+     */
+    public double getBallX() {
+        return isThreaded() ? snapshot.get().getBallX() : world.getBallX();
+    }
+
+    /**
+     * @return position of the ball along the z-axis as the FX thread may see it
+     */
+    public double getBallZ() {
+        return isThreaded() ? snapshot.get().getBallZ() : world.getBallZ();
+    }
+
+    /**
+     * @return angle of the wheel as the FX thread may see it
+     */
+    public double getWheelAngle() {
+        return isThreaded() ? snapshot.get().getWheelAngle() : world.getWheelAngle();
+    }
+
+    /**
+     * turns the wheel without interpolation, applied before the next step
+     */
+    public void setWheelAngle(double wheelAngle) {
+        run(() -> world.setWheelAngle(wheelAngle));
+    }
+
     // calls tick(int steps) with a value of 1
     public int tick() {
         return this.tick(1);
@@ -73,320 +200,439 @@ public class LuckyPhysics {
 
     /**
      * the tick-method is used to perform a given amount steps moving the roulette-physic-objects
-     * around and handling collision
+     * around and handling collision, it only changes the world, call sync() to update the nodes
      */
-
-    private static int cntTicksBallBelowMinSpeed = 0;
-
     public int tick(int steps) {
 
         if (steps <= 0) {
             LOGGER.log(Level.WARNING, "LuckyPhysics asked to tick 0 units, skipping!");
             return 1;
         }
-        if (ball == null) {
-            LOGGER.log(Level.SEVERE, "No ball found, skipping!");
-            return 1;
-        }
-        if (wheel == null) {
-            LOGGER.log(Level.SEVERE, "No wheel found, skipping!");
-            return 1;
-        }
-        if (wheel.getChildren().isEmpty()) {
-            LOGGER.log(Level.SEVERE, "No elements in the luckyWheel found, skipping!");
-            return 1;
-        }
-        if (frame == null) {
-            LOGGER.log(Level.SEVERE, "No frame found, skipping!");
+        if (isThreaded()) {
+            LOGGER.log(Level.WARNING, "LuckyPhysics is stepped by its own thread, skipping!");
             return 1;
         }
+        if (!checkObjects()) return 1;
 
-        //execute the ticks
-        for (int i = 0; i < steps; i++) {
-            //check if the ball was below its min speed for 3 ticks, if it was set its velocity to 0
-            //this prevents the ball from "wobbeling" forever
-            cntTicksBallBelowMinSpeed = ball.getVelocity().length() <= MINIMAL_BALL_SPEED ? cntTicksBallBelowMinSpeed + 1 : 0;
-            if (cntTicksBallBelowMinSpeed >= TICKS_UNTIL_BALL_COUNTS_AS_STOPPED) {
-                ball.getVelocity().x = 0;
-                ball.getVelocity().y = 0;
-                ball.getVelocity().z = 0;
-
-                if (this.spinning) {
-                    this.spinning = false;
-                    if (listener != null) listener.onBallStopped();
-                }
-            }
+        world.tick(steps);
+        return 0;
+    }
 
+    /**
+     * starts a physics thread stepping the world every TICK_DURATION,
+     * from now on sync via syncLatest() instead of tick() and sync()
+     */
+    public void startThread() {
+        if (isThreaded() || !checkObjects()) return;
+
+        snapshot.set(new LuckyPhysicsSnapshot(world, System.nanoTime()));
+        spinning = world.isSpinning();
+        paused = false;
+        stepping = null;
+
+        executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "LuckyPhysics");
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.execute(this::resumeThread);
+        LOGGER.log(Level.INFO, "LuckyPhysics thread started!");
+    }
 
-            //move the ball
-            ball.setTranslateY(ball.getTranslateY() + ball.getVelocity().y);
-            ball.setTranslateX(ball.getTranslateX() + ball.getVelocity().x);
-            ball.setTranslateZ(ball.getTranslateZ() + ball.getVelocity().z);
-
-            //rotate the wheel, unless its rotating slower than minimum-rotation-speed
-            if (wheel.getRotationSpeed() > MINIMAL_WHEEL_ROTATION) {
-                wheel.setRotationSpeed(wheel.getRotationSpeed() - WHEEL_ROTATION_REDUCTION);
-                if (wheel.getTransforms().isEmpty())
-                    wheel.getTransforms().add(new Rotate(0, 0, 0, 0, Rotate.Y_AXIS));
-                try {
-                    Rotate rotate = (Rotate) wheel.getTransforms().get(0);
-                    rotate.setAngle((rotate.getAngle() + wheel.getRotationSpeed()) % 360);
-                } catch (Exception e) {
-                    LOGGER.log(Level.SEVERE, "Could not find/apply a transform in wheel, skipping! Full trace back: %n", e);
-                }
-            } else {
-                wheel.setRotationSpeed(0);
-            }
+    /**
+     * stops the physics thread, the world is stepped by tick() again afterwards
+     */
+    public void stopThread() {
+        if (!isThreaded()) return;
+
+        executor.shutdownNow();
+        try {
+            executor.awaitTermination(1, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        executor = null;
+        LOGGER.log(Level.INFO, "LuckyPhysics thread stopped!");
+    }
 
+    private void stepOnPhysicsThread() {
+        if (paused) return;
 
-            //apply gravity
-            ball.getVelocity().y += GRAVITY;
+        try {
+            world.tick(1);
+        } catch (RuntimeException e) {
+            // an exception would silently cancel all following steps
+            LOGGER.log(Level.SEVERE, "LuckyPhysics step failed, skipping! Full trace back: %n", e);
+            return;
+        }
 
-            //distance of the ball to the center
-            Vec3d distanceCenter = new Vec3d(ball.getTranslateX(), 0, ball.getTranslateZ());
-            double distanceCenterD = distanceCenter.length() - ball.getRadius();
+        // a stop event takes the snapshot of the moment the ball stopped, keep that one
+        if (paused) return;
+        snapshot.set(new LuckyPhysicsSnapshot(world, System.nanoTime()));
 
-            //check for all possible intersections
-            boolean collidesBaseWheel = LuckyPlayground.WHEEL_RADIUS > distanceCenterD
-                    && wheel.getTranslateY() <= ball.getTranslateY() + ball.getRadius()
-                    && !(distanceCenterD < LuckyPlayground.COLON_RADIUS);
+        // nothing moves anymore, stop stepping until the next command
+        if (!isWorldIdle()) {
+            idleSteps = 0;
+        } else if (++idleSteps >= IDLE_STEPS_UNTIL_PARKED) {
+            stepping.cancel(false);
+            stepping = null;
+        }
+    }
 
-            boolean collidesCenterColon = distanceCenterD <= LuckyPlayground.COLON_RADIUS && ballCollidesCenterColon();
+    /**
+     * schedules the steps of the physics thread again if it is parked, called on the physics thread
+     */
+    private void resumeThread() {
+        idleSteps = 0;
+        if (stepping != null) return;
 
-            boolean collidesFrame = !collidesCenterColon
-                    && distanceCenterD >= LuckyPlayground.WHEEL_RADIUS - ball.getRadius() * 2
-                    && ballCollidesFrame();
-            boolean collidesBorder = distanceCenterD > LuckyPlayground.WHEEL_RADIUS + frame.getHeight() - ball.getRadius();
+        stepping = executor.scheduleAtFixedRate(this::stepOnPhysicsThread, TICK_DURATION, TICK_DURATION,
+                TimeUnit.NANOSECONDS);
+    }
 
-            boolean collides = collidesBaseWheel || collidesBorder || collidesFrame || collidesCenterColon;
+    /**
+     * called by the world on the thread stepping it
+     */
+    private void onWorldBallStopped() {
+        // the result of a replayed spin was delivered before the replay started
+        if (replaying) {
+            replaying = false;
+            return;
+        }
 
-            //revert the last step
-            if (collides) {
-                ball.setTranslateZ(ball.getTranslateZ() - ball.getVelocity().z);
-                ball.setTranslateY(ball.getTranslateY() - ball.getVelocity().y);
-                ball.setTranslateX(ball.getTranslateX() - ball.getVelocity().x);
-            }
+        if (!isThreaded()) {
+            if (listener != null) listener.onBallStopped();
+            return;
+        }
 
-            //execute matching intersection-function
-            if (collidesFrame)
-                reflectLuckyBallVelocityOnFrame();
-            if (collidesBorder)
-                reflectLuckyBallVelocityOnBorder();
-            if (collidesCenterColon)
-                reflectLuckyBallVelocityOnCenterColon();
-            if (collidesBaseWheel)
-                reflectLuckyBallVelocityOnGround();
-
-            if (collidesBaseWheel || collidesCenterColon)
-                addMomentumToBall();
-
-            //reduce balls velocity by the matching cost
-            if (collides) {
-                ball.getVelocity().y *= VERTICAL_BOUNCINESS;
-                ball.getVelocity().z *= COLLISION_REDUCTION;
-                ball.getVelocity().x *= COLLISION_REDUCTION;
-            }
+        // hold the world still until the FX thread has handled the stop, so the result is read
+        // from the same state the ball stopped in, commands issued meanwhile run before the next step
+        paused = true;
+        snapshot.set(new LuckyPhysicsSnapshot(world, System.nanoTime()));
+
+        Platform.runLater(() -> {
+            // a reset may have cancelled this spin while the event was queued
+            boolean wasSpinning = spinning;
+            spinning = false;
+            if (wasSpinning && listener != null)
+                listener.onBallStopped();
+
+            run(() -> {
+                startPendingReplay();
+                paused = false;
+            });
+        });
+    }
 
-            //under massively unlucky circumstances, the ball can clip through the frame and fall into oblivion
-            //this resets its position, so the user does not have to restart the entire program
-            if (ball.getTranslateY() - ball.getRadius() * 3 > wheel.getTranslateY()) {
-                ball.setTranslateX(0);
-                ball.setTranslateY(wheel.getTranslateY() - LuckyPlayground.COLON_RADIUS - ball.getRadius() * 5);
-                ball.setTranslateZ(0);
+    /**
+     * fast-forwards a spin on a copy of the world in the background, the stop is delivered as soon as
+     * the result is known, then the final replaySteps steps of the spin are played
+     *
+     * @param replaySteps number of steps to replay, 0 to only show where the ball stopped
+     */
+    public int spinInstant(long seed, int replaySteps) {
+        spinning = true;
+        // the world thread won't change while the spin is computed, commands are handed to the current one
+        Executor worldThread = isThreaded() ? executor : Platform::runLater;
+        long minSteps = minSpinSteps;
+        long maxSteps = maxSpinSteps;
+
+        run(() -> {
+            if (instantSpinPending) {
+                LOGGER.log(Level.WARNING, "Result of the last instant spin is still computed, skipping!");
+                return;
             }
-        }
+            instantSpinPending = true;
+            long generation = spinGeneration;
+
+            LuckyPhysicsWorld start = world.copy();
+            CompletableFuture.supplyAsync(() -> {
+                if (maxSteps <= 0)
+                    return LuckyInstantSpin.simulate(start, seed, replaySteps);
+
+                LuckySpinLaunch launch = LuckySpinDurationSolver.solve(start, seed, minSteps, maxSteps);
+                return LuckyInstantSpin.simulate(start, launch, replaySteps);
+            }).whenCompleteAsync((instantSpin, e) -> {
+                // a reset or another spin came in while the result was computed, it belongs to nothing anymore
+                if (generation != spinGeneration) return;
+
+                instantSpinPending = false;
+                if (e != null) {
+                    LOGGER.log(Level.SEVERE, "Instant spin failed, skipping! Full trace back: %n", e);
+                    if (!isThreaded()) spinning = false;
+                    return;
+                }
+                applyInstantSpin(instantSpin, seed, minSteps, maxSteps);
+            }, worldThread).exceptionally(e -> {
+                LOGGER.log(Level.SEVERE, "Instant spin failed, skipping! Full trace back: %n", e);
+                return null;
+            });
+        });
+        LOGGER.log(Level.INFO, String.format("Instant spin started with seed %d!", seed));
         return 0;
     }
 
-    public int spin() {
-        //generates random Values for the x- and z-velocity of the ball and set it
-        Random r = new Random();
-        double randomValue = MINIMAL_BALL_STARTING_SPEED + (MAX_BALL_SPEED - MINIMAL_BALL_STARTING_SPEED) * r.nextDouble();
-        boolean randomBoolean = r.nextBoolean();
+    public int spinInstant(int replaySteps) {
+        return spinInstant(ThreadLocalRandom.current().nextLong(), replaySteps);
+    }
 
-        ball.getVelocity().x = randomBoolean ? randomValue : -randomValue;
+    private void applyInstantSpin(LuckyInstantSpin instantSpin, long seed, long minSteps, long maxSteps) {
+        // the FX thread owns the flag, a threaded world leaves it to the delivery of the stop,
+        // the physics thread may have parked while the spin was computed
+        if (!isThreaded()) {
+            spinning = false;
+        } else {
+            resumeThread();
+        }
 
-        randomValue = MINIMAL_BALL_STARTING_SPEED + (MAX_BALL_SPEED - MINIMAL_BALL_STARTING_SPEED) * r.nextDouble();
-        randomBoolean = r.nextBoolean();
-        ball.getVelocity().z = randomBoolean ? randomValue : -randomValue;
+        if (instantSpin == null) {
+            LOGGER.log(Level.WARNING, "Ball of the instant spin didn't stop, spinning live instead!");
+            spinWorld(seed, minSteps, maxSteps);
+            return;
+        }
 
+        // the world performs the stop step itself, so the stop is delivered exactly like after a live spin
+        pendingReplay = instantSpin.getReplayStart() != null ? instantSpin : null;
+        world.copyFrom(instantSpin.getBeforeStop());
+        world.tick(1);
 
-        //set fixed wheel rotation speed
-        wheel.setRotationSpeed(wheel.getRotationSpeed() + BASE_WHEEL_SPEED > MAX_WHEEL_SPEED ? MAX_WHEEL_SPEED : wheel.getRotationSpeed() + BASE_WHEEL_SPEED);
-        this.spinning = true;
-        LOGGER.log(Level.INFO, "Spin started!");
-        return 0;
+        // a threaded world starts the replay once the FX thread has handled the stop
+        if (!isThreaded())
+            startPendingReplay();
     }
 
-    /**
-     * stops moving objects and resets the balls position
-     */
+    private void startPendingReplay() {
+        if (pendingReplay == null) return;
 
-    public int reset() {
-        cntTicksBallBelowMinSpeed = TICKS_UNTIL_BALL_COUNTS_AS_STOPPED;
-        ball.setVelocity(new Vec3d(0, 0, 0));
-        ball.setTranslateX(0);
-        ball.setTranslateZ(0);
-        ball.setTranslateY(wheel.getTranslateY() - LuckyPlayground.COLON_RADIUS - ball.getRadius() * 3);
-        wheel.setRotationSpeed(0);
-        this.spinning = false;
+        // the wheel angle doesn't influence the ball, so the replay may be turned by whatever
+        // the listener turned the wheel by, it then ends exactly in the current state
+        double turnedBy = world.getWheelAngle() - pendingReplay.getWheelAngleAfterStop();
+        LuckyPhysicsWorld replayStart = pendingReplay.getReplayStart();
+        world.copyFrom(replayStart);
+        world.setWheelAngle((replayStart.getWheelAngle() + turnedBy + 360) % 360);
+        world.setBallPosition(replayStart.getBallX(), replayStart.getBallY(), replayStart.getBallZ());
 
-        LOGGER.log(Level.INFO, "LuckyBall reset!");
-        return 0;
+        pendingReplay = null;
+        replaying = true;
     }
 
     /**
-     * adds momentum to the ball based on the wheels rotation speed
+     * runs command on the thread owning the world
      */
-    private void addMomentumToBall() {
-        Vec3d distanceCenter = new Vec3d(ball.getTranslateX(), 0, ball.getTranslateZ());
-        //get second vector pointing from y-axis to the balls xz-pos and rotate it
-        Vec3d distanceCenterRotated = new Vec3d(ball.getTranslateX(), -.0001, ball.getTranslateZ());
-        rotateVecY(distanceCenterRotated, wheel.getRotationSpeed());
-
-        //calc vector which describes the change on the ball's velocity
-        distanceCenterRotated.sub(distanceCenter);
-        distanceCenterRotated.normalize();
-        distanceCenterRotated.mul(wheel.getRotationSpeed() * WHEEL_MOMENTUM);
-
-        //apply the change
-        ball.getVelocity().add(distanceCenterRotated);
+    private void run(Runnable command) {
+        if (isThreaded()) {
+            executor.execute(() -> {
+                command.run();
+                // a parked thread has to step again to publish what the command changed
+                resumeThread();
+            });
+        } else {
+            command.run();
+        }
     }
 
-
     /**
-     * helper function to rotate a vector around the y-axis
+     * copies the current state of the world into the nodes
      */
-    private void rotateVecY(Vec3d vec, double angle) {
-        double tmpx = vec.x;
-        vec.x = vec.x * Math.cos(Math.toRadians(angle)) + vec.z * Math.sin(Math.toRadians(angle));
-        vec.z = -tmpx * Math.sin(Math.toRadians(angle)) + vec.z * Math.cos(Math.toRadians(angle));
+    public void sync() {
+        sync(1);
     }
 
     /**
-     * reflects a ball velocity on the outer border
+     * copies the state of the world into the nodes, interpolated between the last two steps
+     *
+     * @param alpha 0 for the state before the last step, 1 for the current state
      */
+    public void sync(double alpha) {
+        if (isThreaded()) {
+            syncLatest();
+            return;
+        }
 
-    private void reflectLuckyBallVelocityOnBorder() {
-        Vec3d normal = new Vec3d(-ball.getTranslateX(), 0, -ball.getTranslateZ());
-        normal.normalize();
-        reflectVec(ball.getVelocity(), normal);
+        apply(world.getInterpolatedBallX(alpha), world.getInterpolatedBallY(alpha),
+                world.getInterpolatedBallZ(alpha), world.getVelocityX(), world.getVelocityY(), world.getVelocityZ(),
+                world.getWheelSpeed(), world.getInterpolatedWheelAngle(alpha));
     }
 
     /**
-     * reflects a ball velocity on the floor
+     * copies the latest snapshot of the physics thread into the nodes,
+     * interpolated by the time passed since the snapshot was taken
      */
-    private void reflectLuckyBallVelocityOnGround() {
-        ball.getVelocity().y *= -1;
+    public void syncLatest() {
+        LuckyPhysicsSnapshot latest = snapshot.get();
+        if (latest == null) return;
+
+        double alpha = Math.min(1, Math.max(0, (double) (System.nanoTime() - latest.getTime()) / TICK_DURATION));
+        apply(latest.getInterpolatedBallX(alpha), latest.getInterpolatedBallY(alpha),
+                latest.getInterpolatedBallZ(alpha), latest.getVelocityX(), latest.getVelocityY(), latest.getVelocityZ(),
+                latest.getWheelSpeed(), latest.getInterpolatedWheelAngle(alpha));
     }
 
-    /**
-     * reflects ball on the centre colon, provides that its angle is 45 deg
-     */
-
-    private void reflectLuckyBallVelocityOnCenterColon() {
-        //vec pointing up on the y-axis
-        Vec3d tmpVec = new Vec3d(0, -1, 0);
-
-        //base-edge of the triangle
-        Vec3d normal = new Vec3d(ball.getTranslateX(), 0, ball.getTranslateZ());
-        normal.normalize();
+    private void apply(double ballX, double ballY, double ballZ, double velocityX, double velocityY,
+                       double velocityZ, double wheelSpeed, double wheelAngle) {
+        if (ball != null) {
+            ball.setTranslateX(ballX);
+            ball.setTranslateY(ballY);
+            ball.setTranslateZ(ballZ);
+            ball.getVelocity().x = velocityX;
+            ball.getVelocity().y = velocityY;
+            ball.getVelocity().z = velocityZ;
+        }
 
-        //this should get normal vector relative to the hypotenuse
-        normal.add(tmpVec);
-        normal.normalize();
+        if (wheel != null) {
+            wheel.setRotationSpeed(wheelSpeed);
+            Rotate rotate = getWheelRotate();
+            if (rotate != null)
+                rotate.setAngle(wheelAngle);
+        }
+    }
 
-        reflectVec(ball.getVelocity(), normal);
+    public int spin() {
+        return spin(ThreadLocalRandom.current().nextLong());
     }
 
     /**
-     * reflects ball on the frame, provides that its angle is 45 deg
+     * spins with the given seed, the seed is logged so any spin can be replayed
      */
-    private void reflectLuckyBallVelocityOnFrame() {
-        //vec pointing up on the y-axis
-        Vec3d tmpVec = new Vec3d(0, -1, 0);
-
-        //base-edge of the triangle
-        Vec3d normal = new Vec3d(-ball.getTranslateX(), 0, -ball.getTranslateZ());
-        normal.normalize();
-
-        //this should get normal vector relative to the hypotenuse
-        normal.add(tmpVec);
-        normal.normalize();
-
-        reflectVec(ball.getVelocity(), normal);
+    public int spin(long seed) {
+        // an unthreaded world tracks a live spin itself, an instant spin this one replaces doesn't count anymore
+        spinning = isThreaded();
+        long minSteps = minSpinSteps;
+        long maxSteps = maxSpinSteps;
+        run(() -> {
+            startNewSpinGeneration();
+            spinWorld(seed, minSteps, maxSteps);
+        });
+        LOGGER.log(Level.INFO, String.format("Spin started with seed %d!", seed));
+        return 0;
     }
 
     /**
-     * reflects vec input on vec normal
+     * from now on every spin stops between minSeconds and maxSeconds after it started,
+     * without changing the chances of the students.
+     * Windows ending after about 20 seconds can't be reached, see LuckySpinDurationSolver
      */
+    public void setSpinDuration(double minSeconds, double maxSeconds) {
+        minSpinSteps = (long) Math.ceil(minSeconds * TICKS_PER_SECOND);
+        maxSpinSteps = Math.max(minSpinSteps, (long) Math.floor(maxSeconds * TICKS_PER_SECOND));
+    }
 
-    private void reflectVec(Vec3d input, Vec3d normal) {
-        Vec3d tmpVec = new Vec3d(input);
-
-        //calculate reflected vector
-        double scalar = tmpVec.dot(normal);
-        scalar *= 2;
-        normal.mul(scalar);
-        input.sub(normal);
+    public void clearSpinDuration() {
+        minSpinSteps = 0;
+        maxSpinSteps = 0;
     }
 
     /**
-     * check if ball intersects the center colon of the wheel
-     * generates a ray which represents the closest line of the colon to the ball
+     * called on the world thread, a spin bounded to a window of steps starts once its seed was solved
+     * in the background, trying the candidates would hold up the world thread for too long
      */
-    private boolean ballCollidesCenterColon() {
-        Vec3d upperCorner = new Vec3d(0, wheel.getTranslateY() - LuckyPlayground.COLON_RADIUS, 0);
-
-        Vec3d lowerCorner = new Vec3d(ball.getTranslateX(), 0, ball.getTranslateZ());
-        lowerCorner.normalize();
-        lowerCorner.mul(LuckyPlayground.COLON_RADIUS);
-        lowerCorner.y = wheel.getTranslateY();
-
-        Vec3d d = new Vec3d(lowerCorner);
-        d.sub(upperCorner);
-        Vec3d oc = new Vec3d(upperCorner);
-        oc.sub(new Vec3d(ball.getTranslateX(), ball.getTranslateY(), ball.getTranslateZ()));
+    private void spinWorld(long seed, long minSteps, long maxSteps) {
+        if (maxSteps <= 0) {
+            world.spin(seed);
+            return;
+        }
 
-        return sphereCollidesRay(d, oc);
+        // an unthreaded world doesn't spin yet, the FX thread owns the flag then
+        if (!isThreaded())
+            spinning = true;
+        Executor worldThread = isThreaded() ? executor : Platform::runLater;
+        long generation = spinGeneration;
+        LuckyPhysicsWorld start = world.copy();
+
+        CompletableFuture.supplyAsync(() -> LuckySpinDurationSolver.solve(start, seed, minSteps, maxSteps))
+                .whenCompleteAsync((launch, e) -> {
+                    // a reset or another spin came in while the launch was solved
+                    if (generation != spinGeneration) return;
+
+                    if (!isThreaded()) {
+                        spinning = false;
+                    } else {
+                        resumeThread();
+                    }
+
+                    if (e != null) {
+                        LOGGER.log(Level.SEVERE,
+                                "Solving the spin duration failed, spinning unbounded! Full trace back: %n", e);
+                        world.spin(seed);
+                        return;
+                    }
+
+                    // the launch was solved for the state the spin was started in, the wheel kept turning meanwhile,
+                    // its angle doesn't influence the ball, so only that is kept
+                    double wheelAngle = world.getWheelAngle();
+                    world.copyFrom(start);
+                    world.setWheelAngle(wheelAngle);
+                    launch.spin(world);
+                    LOGGER.log(Level.INFO, String.format(
+                            "Spin of seed %d stops within %d to %d steps with seed %d and wheel speed %.3f!",
+                            seed, minSteps, maxSteps, launch.getSeed(), launch.getWheelSpeed()));
+                }, worldThread).exceptionally(e -> {
+                    LOGGER.log(Level.SEVERE, "Spin failed, skipping! Full trace back: %n", e);
+                    return null;
+                });
     }
 
     /**
-     * calculates if the ball collides the frame, analog to ballCollidesCenterColon
-     **/
-
-    private boolean ballCollidesFrame() {
-        Vec3d upperCorner = new Vec3d(ball.getTranslateX(), 0, ball.getTranslateZ());
-        upperCorner.normalize();
-        upperCorner.mul(LuckyPlayground.WHEEL_RADIUS + frame.getHeight());
-        upperCorner.y = wheel.getTranslateY() - frame.getHeight();
-
-        Vec3d lowerCorner = new Vec3d(ball.getTranslateX(), 0, ball.getTranslateZ());
-        lowerCorner.normalize();
-        lowerCorner.mul(LuckyPlayground.WHEEL_RADIUS);
-        lowerCorner.y = wheel.getTranslateY();
+     * stops moving objects and resets the balls position
+     */
 
-        Vec3d d = new Vec3d(lowerCorner);
-        d.sub(upperCorner);
-        Vec3d oc = new Vec3d(upperCorner);
-        oc.sub(new Vec3d(ball.getTranslateX(), ball.getTranslateY(), ball.getTranslateZ()));
+    public int reset() {
+        if (isThreaded()) {
+            spinning = false;
+            run(() -> {
+                startNewSpinGeneration();
+                pendingReplay = null;
+                replaying = false;
+                world.reset();
+                snapshot.set(new LuckyPhysicsSnapshot(world, System.nanoTime()));
+            });
+        } else {
+            spinning = false;
+            startNewSpinGeneration();
+            pendingReplay = null;
+            replaying = false;
+            world.reset();
+            sync();
+        }
 
-        return sphereCollidesRay(d, oc);
+        LOGGER.log(Level.INFO, "LuckyBall reset!");
+        return 0;
     }
 
-
     /**
-     * function to check if a sphere collides a ray,
-     * Vec3d originToCenter should point from the origin of the ray to the center of the ball
-     * Vec3d directionRay points from the origin towards its destination
+     * drops the result of an instant spin that is still computed, called on the world thread
      */
-    private boolean sphereCollidesRay(Vec3d directionRay, Vec3d originToCenter) {
-        double a = directionRay.dot(directionRay);
-        double b = 2.0 * originToCenter.dot(directionRay);
-        double c = originToCenter.dot(originToCenter) - ball.getRadius() * ball.getRadius();
-        double discriminant = b * b - 4 * a * c;
-        return (discriminant >= 0);
+    private void startNewSpinGeneration() {
+        ++spinGeneration;
+        instantSpinPending = false;
     }
 
+    private boolean checkObjects() {
+        if (ball == null) {
+            LOGGER.log(Level.SEVERE, "No ball found, skipping!");
+            return false;
+        }
+        if (wheel == null) {
+            LOGGER.log(Level.SEVERE, "No wheel found, skipping!");
+            return false;
+        }
+        if (wheel.getChildren().isEmpty()) {
+            LOGGER.log(Level.SEVERE, "No elements in the luckyWheel found, skipping!");
+            return false;
+        }
+        if (frame == null) {
+            LOGGER.log(Level.SEVERE, "No frame found, skipping!");
+            return false;
+        }
+        return true;
+    }
 
+    private Rotate getWheelRotate() {
+        try {
+            return (Rotate) wheel.getTransforms().get(0);
+        } catch (Exception e) {
+            LOGGER.log(Level.SEVERE, "Could not find/apply a transform in wheel, skipping! Full trace back: %n", e);
+            return null;
+        }
+    }
 }
@@ -0,0 +1,263 @@
+package de.glueckscrew.gluecksroulette.physics;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Many independent roulettes stepped together, every ball has a wheel of its own.
+ * The state is kept in one array per value instead of one LuckyPhysicsWorld per ball, so every phase of a step
+ * runs as a plain loop over all balls: saving the previous state, the stop check, turning the wheels,
+ * moving the balls and gravity. The loops without branches are left to the JIT to vectorize.
+ *
+ * Balls that may hit a collider in a step are moved by the collision code of LuckyPhysicsWorld,
+ * so every ball moves exactly like a LuckyPhysicsWorld in the same state would.
+ *
+ * @author Paul Weisser
+ */
+public class LuckyPhysicsBatch {
+    @Getter
+    private final int size;
+
+    //state of the balls
+    private final double[] ballX, ballY, ballZ;
+    private final double[] velocityX, velocityY, velocityZ;
+    private final double[] previousBallX, previousBallY, previousBallZ;
+
+    //state of the wheels
+    private final double[] wheelAngle, wheelSpeed;
+    private final double[] previousWheelAngle;
+
+    //bookkeeping of LuckyPhysicsWorld.step() for every ball
+    private final boolean[] spinning;
+    private final long[] steps;
+    private final int[] cntTicksBallBelowMinSpeed;
+    private final int[] freeSteps;
+    private final boolean[] movedFreely;
+
+    //moves the balls near a collider, it holds the geometry shared by all balls
+    private final LuckyPhysicsWorld collisions;
+
+    /**
+     * is called from within tick(), it may only change the ball that stopped
+     */
+    @Setter
+    private LuckyPhysicsBatchListener listener;
+
+    /**
+     * @param start state every ball starts in
+     */
+    public LuckyPhysicsBatch(LuckyPhysicsWorld start, int size) {
+        this.size = size;
+        ballX = new double[size];
+        ballY = new double[size];
+        ballZ = new double[size];
+        velocityX = new double[size];
+        velocityY = new double[size];
+        velocityZ = new double[size];
+        previousBallX = new double[size];
+        previousBallY = new double[size];
+        previousBallZ = new double[size];
+        wheelAngle = new double[size];
+        wheelSpeed = new double[size];
+        previousWheelAngle = new double[size];
+        spinning = new boolean[size];
+        steps = new long[size];
+        cntTicksBallBelowMinSpeed = new int[size];
+        freeSteps = new int[size];
+        movedFreely = new boolean[size];
+
+        collisions = start.copy();
+        for (int i = 0; i < size; i++) {
+            load(start, i);
+        }
+    }
+
+    /**
+     * puts the ball into the state of the world, only the geometry of the world has to match the batch
+     */
+    public void load(LuckyPhysicsWorld world, int ball) {
+        ballX[ball] = world.getBallX();
+        ballY[ball] = world.getBallY();
+        ballZ[ball] = world.getBallZ();
+        velocityX[ball] = world.getVelocityX();
+        velocityY[ball] = world.getVelocityY();
+        velocityZ[ball] = world.getVelocityZ();
+        previousBallX[ball] = world.getPreviousBallX();
+        previousBallY[ball] = world.getPreviousBallY();
+        previousBallZ[ball] = world.getPreviousBallZ();
+        wheelAngle[ball] = world.getWheelAngle();
+        wheelSpeed[ball] = world.getWheelSpeed();
+        previousWheelAngle[ball] = world.getPreviousWheelAngle();
+        spinning[ball] = world.isSpinning();
+        steps[ball] = world.getSteps();
+        cntTicksBallBelowMinSpeed[ball] = world.getCntTicksBallBelowMinSpeed();
+        //a free flight is found again after the first step without an impact
+        freeSteps[ball] = 0;
+        movedFreely[ball] = false;
+    }
+
+    /**
+     * spins the ball like LuckyPhysicsWorld.spin(long seed, boolean randomPhase) does
+     */
+    public void spin(int ball, long seed, boolean randomPhase) {
+        LuckyRandom random = LuckyRandom.create(seed);
+        spin(ball, random);
+
+        if (randomPhase) {
+            wheelAngle[ball] = (wheelAngle[ball] + 360 * random.nextDouble()) % 360;
+            previousWheelAngle[ball] = wheelAngle[ball];
+        }
+    }
+
+    /**
+     * spins the ball like LuckyPhysicsWorld.spin(LuckyRandom r) does
+     */
+    public void spin(int ball, LuckyRandom random) {
+        collisions.setWheelSpeed(wheelSpeed[ball]);
+        collisions.spin(random);
+
+        velocityX[ball] = collisions.getVelocityX();
+        velocityZ[ball] = collisions.getVelocityZ();
+        wheelSpeed[ball] = collisions.getWheelSpeed();
+        spinning[ball] = true;
+        steps[ball] = 0;
+        freeSteps[ball] = 0;
+    }
+
+    public double getBallX(int ball) {
+        return ballX[ball];
+    }
+
+    public double getBallY(int ball) {
+        return ballY[ball];
+    }
+
+    public double getBallZ(int ball) {
+        return ballZ[ball];
+    }
+
+    public double getInterpolatedBallX(int ball, double alpha) {
+        return previousBallX[ball] + (ballX[ball] - previousBallX[ball]) * alpha;
+    }
+
+    public double getInterpolatedBallY(int ball, double alpha) {
+        return previousBallY[ball] + (ballY[ball] - previousBallY[ball]) * alpha;
+    }
+
+    public double getInterpolatedBallZ(int ball, double alpha) {
+        return previousBallZ[ball] + (ballZ[ball] - previousBallZ[ball]) * alpha;
+    }
+
+    public double getWheelAngle(int ball) {
+        return wheelAngle[ball];
+    }
+
+    public double getInterpolatedWheelAngle(int ball, double alpha) {
+        return LuckyPhysicsWorld.interpolateAngle(previousWheelAngle[ball], wheelAngle[ball], alpha);
+    }
+
+    public boolean isSpinning(int ball) {
+        return spinning[ball];
+    }
+
+    public long getSteps(int ball) {
+        return steps[ball];
+    }
+
+    /**
+     * @return see LuckyPhysicsWorld.getBallFraction()
+     */
+    public double getBallFraction(int ball) {
+        return (360 + LuckyPhysicsWorld.getBallAngle(ballX[ball], ballZ[ball]) - wheelAngle[ball]) % 360 / 360;
+    }
+
+    /**
+     * performs a given amount of steps on all balls, none of the steps allocates anything
+     */
+    public void tick(int steps) {
+        for (int i = 0; i < steps; i++) {
+            step();
+        }
+    }
+
+    /**
+     * LuckyPhysicsWorld.step() with every phase looping over all balls
+     */
+    private void step() {
+        System.arraycopy(ballX, 0, previousBallX, 0, size);
+        System.arraycopy(ballY, 0, previousBallY, 0, size);
+        System.arraycopy(ballZ, 0, previousBallZ, 0, size);
+        System.arraycopy(wheelAngle, 0, previousWheelAngle, 0, size);
+
+        for (int i = 0; i < size; i++) {
+            ++steps[i];
+            double speed = Math.sqrt(velocityX[i] * velocityX[i] + velocityY[i] * velocityY[i]
+                    + velocityZ[i] * velocityZ[i]);
+            cntTicksBallBelowMinSpeed[i] = speed <= LuckyPhysicsWorld.MINIMAL_BALL_SPEED
+                    ? cntTicksBallBelowMinSpeed[i] + 1 : 0;
+            if (cntTicksBallBelowMinSpeed[i] >= LuckyPhysicsWorld.TICKS_UNTIL_BALL_COUNTS_AS_STOPPED) {
+                velocityX[i] = 0;
+                velocityY[i] = 0;
+                velocityZ[i] = 0;
+
+                if (spinning[i]) {
+                    spinning[i] = false;
+                    if (listener != null) listener.onBallStopped(i);
+                }
+            }
+        }
+
+        for (int i = 0; i < size; i++) {
+            if (wheelSpeed[i] > LuckyPhysicsWorld.MINIMAL_WHEEL_ROTATION) {
+                wheelSpeed[i] -= LuckyPhysicsWorld.WHEEL_ROTATION_REDUCTION;
+                wheelAngle[i] = (wheelAngle[i] + wheelSpeed[i]) % 360;
+            } else {
+                wheelSpeed[i] = 0;
+            }
+        }
+
+        for (int i = 0; i < size; i++) {
+            if (freeSteps[i] > 0) {
+                --freeSteps[i];
+                ballX[i] += velocityX[i];
+                ballY[i] += velocityY[i];
+                ballZ[i] += velocityZ[i];
+                movedFreely[i] = true;
+            } else {
+                moveWithCollisions(i);
+            }
+        }
+
+        for (int i = 0; i < size; i++) {
+            velocityY[i] += LuckyPhysicsWorld.GRAVITY;
+        }
+
+        for (int i = 0; i < size; i++) {
+            if (freeSteps[i] == 0 && movedFreely[i]) {
+                loadCollisions(i);
+                freeSteps[i] = collisions.countFreeSteps();
+            }
+        }
+    }
+
+    private void moveWithCollisions(int ball) {
+        loadCollisions(ball);
+        collisions.setWheelSpeed(wheelSpeed[ball]);
+        collisions.move(1);
+
+        ballX[ball] = collisions.getBallX();
+        ballY[ball] = collisions.getBallY();
+        ballZ[ball] = collisions.getBallZ();
+        velocityX[ball] = collisions.getVelocityX();
+        velocityY[ball] = collisions.getVelocityY();
+        velocityZ[ball] = collisions.getVelocityZ();
+        movedFreely[ball] = collisions.isLastMoveFree();
+    }
+
+    private void loadCollisions(int ball) {
+        collisions.setBallPosition(ballX[ball], ballY[ball], ballZ[ball]);
+        collisions.setVelocityX(velocityX[ball]);
+        collisions.setVelocityY(velocityY[ball]);
+        collisions.setVelocityZ(velocityZ[ball]);
+    }
+}
@@ -0,0 +1,11 @@
+package de.glueckscrew.gluecksroulette.physics;
+
+/**
+ * @author Paul Weisser
+ */
+public interface LuckyPhysicsBatchListener {
+    /**
+     * @param ball index of the ball in the batch that stopped
+     */
+    void onBallStopped(int ball);
+}
@@ -0,0 +1,62 @@
+package de.glueckscrew.gluecksroulette.physics;
+
+import lombok.Getter;
+
+/**
+ * Immutable copy of a LuckyPhysicsWorld after a step.
+ * The physics thread publishes one of these after every step, the FX thread only ever reads them,
+ * so the two threads never share mutable state.
+ *
+ * @author Paul Weisser
+ */
+@Getter
+public class LuckyPhysicsSnapshot {
+    private final double previousBallX, previousBallY, previousBallZ;
+    private final double ballX, ballY, ballZ;
+    private final double velocityX, velocityY, velocityZ;
+    private final double previousWheelAngle;
+    private final double wheelAngle;
+    private final double wheelSpeed;
+    private final boolean spinning;
+
+    /**
+     * System.nanoTime() of the moment this snapshot was taken
+     */
+    private final long time;
+
+    public LuckyPhysicsSnapshot(LuckyPhysicsWorld world, long time) {
+        this.previousBallX = world.getPreviousBallX();
+        this.previousBallY = world.getPreviousBallY();
+        this.previousBallZ = world.getPreviousBallZ();
+        this.ballX = world.getBallX();
+        this.ballY = world.getBallY();
+        this.ballZ = world.getBallZ();
+        this.velocityX = world.getVelocityX();
+        this.velocityY = world.getVelocityY();
+        this.velocityZ = world.getVelocityZ();
+        this.previousWheelAngle = world.getPreviousWheelAngle();
+        this.wheelAngle = world.getWheelAngle();
+        this.wheelSpeed = world.getWheelSpeed();
+        this.spinning = world.isSpinning();
+        this.time = time;
+    }
+
+    /**
+     * @param alpha 0 for the state before the step, 1 for the state after it
+     */
+    public double getInterpolatedBallX(double alpha) {
+        return previousBallX + (ballX - previousBallX) * alpha;
+    }
+
+    public double getInterpolatedBallY(double alpha) {
+        return previousBallY + (ballY - previousBallY) * alpha;
+    }
+
+    public double getInterpolatedBallZ(double alpha) {
+        return previousBallZ + (ballZ - previousBallZ) * alpha;
+    }
+
+    public double getInterpolatedWheelAngle(double alpha) {
+        return LuckyPhysicsWorld.interpolateAngle(previousWheelAngle, wheelAngle, alpha);
+    }
+}
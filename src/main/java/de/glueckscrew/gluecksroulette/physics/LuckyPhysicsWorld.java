@@ -0,0 +1,621 @@
+package de.glueckscrew.gluecksroulette.physics;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Headless state of the roulette: position and velocity of the ball, angle and speed of the wheel.
+ * The simulation steps only on this object, it doesn't know anything about JavaFX nodes,
+ * copying the state into the scene graph is up to LuckyPhysics.sync()
+ *
+ * @author Paul Weisser
+ */
+public class LuckyPhysicsWorld {
+    //physics constants
+    private final static double COLLISION_REDUCTION = .85;
+    private final static double VERTICAL_BOUNCINESS = .5;
+    final static double WHEEL_ROTATION_REDUCTION = .025;
+    final static double GRAVITY = .15;
+    final static double MINIMAL_WHEEL_ROTATION = .001;
+    private final static double WHEEL_MOMENTUM = .8;
+    private final static double BASE_WHEEL_SPEED = 7.5;
+    final static double MINIMAL_BALL_SPEED = GRAVITY * 4; //smallest speed the ball should reach is one gravity-tick
+    private final static double MAX_BALL_SPEED = 30;
+    private final static double MINIMAL_BALL_STARTING_SPEED = 10;
+    final static double MAX_WHEEL_SPEED = 4 * BASE_WHEEL_SPEED;
+
+    final static int TICKS_UNTIL_BALL_COUNTS_AS_STOPPED = 15;
+    private final static double SQRT_2 = Math.sqrt(2);
+    /**
+     * the ball hits colliders at most this often in one step, only a ball stuck in a corner gets there,
+     * the rest of its step is dropped then
+     */
+    private final static int MAX_IMPACTS_PER_STEP = 8;
+    //distance up to which the ball still touches a collider, absorbs the rounding errors of the last impact
+    private final static double CONTACT_DISTANCE = 1e-9;
+    //distance a free flight keeps off the colliders, absorbs the rounding errors of the steps in between
+    private final static double FREE_FLIGHT_MARGIN = 1e-6;
+    private final static int MAX_FREE_STEPS = 120;
+
+    //state of the ball
+    @Getter
+    private double ballX, ballY, ballZ;
+    @Getter
+    private double velocityX, velocityY, velocityZ;
+
+    //state of the wheel, the angle is in degrees along the positive y-axis
+    @Getter
+    private double wheelAngle;
+    @Getter
+    @Setter
+    private double wheelSpeed;
+
+    //geometry
+    @Getter
+    private double ballRadius;
+    @Getter
+    private double wheelY;
+    @Getter
+    private double frameHeight;
+
+    @Setter
+    private LuckyPhysicsListener listener;
+    @Getter
+    private boolean spinning;
+
+    private int cntTicksBallBelowMinSpeed = 0;
+
+    //seed of the last spin(long seed), replaying it from the same state repeats the spin exactly
+    @Getter
+    private long lastSeed;
+    //number of steps performed since the last spin
+    @Getter
+    private long steps;
+
+    //state before the last step, used to interpolate between two steps while rendering
+    @Getter
+    private double previousBallX, previousBallY, previousBallZ;
+    @Getter
+    private double previousWheelAngle;
+
+    //scratch vector for normals, reused to prevent allocations
+    private double normalX, normalY, normalZ;
+    //first impact found by findImpact(), reused like the normal
+    private double impactTime;
+    private Collider impactCollider;
+    //number of upcoming steps in which the ball can't reach any collider, see countFreeSteps()
+    private int freeSteps;
+
+    /**
+     * @return new world in the same state as this one, without the listener
+     */
+    public LuckyPhysicsWorld copy() {
+        LuckyPhysicsWorld copy = new LuckyPhysicsWorld();
+        copy.copyFrom(this);
+        return copy;
+    }
+
+    /**
+     * puts this world into the state of other, the listener is kept
+     */
+    public void copyFrom(LuckyPhysicsWorld other) {
+        ballX = other.ballX;
+        ballY = other.ballY;
+        ballZ = other.ballZ;
+        velocityX = other.velocityX;
+        velocityY = other.velocityY;
+        velocityZ = other.velocityZ;
+        wheelAngle = other.wheelAngle;
+        wheelSpeed = other.wheelSpeed;
+        ballRadius = other.ballRadius;
+        wheelY = other.wheelY;
+        frameHeight = other.frameHeight;
+        spinning = other.spinning;
+        cntTicksBallBelowMinSpeed = other.cntTicksBallBelowMinSpeed;
+        lastSeed = other.lastSeed;
+        steps = other.steps;
+        previousBallX = other.previousBallX;
+        previousBallY = other.previousBallY;
+        previousBallZ = other.previousBallZ;
+        previousWheelAngle = other.previousWheelAngle;
+        freeSteps = other.freeSteps;
+    }
+
+    //bookkeeping of step(), LuckyPhysicsBatch.load() copies it along with the state
+    int getCntTicksBallBelowMinSpeed() {
+        return cntTicksBallBelowMinSpeed;
+    }
+
+    /**
+     * moves the ball without interpolating from its previous position
+     */
+    public void setBallPosition(double x, double y, double z) {
+        ballX = previousBallX = x;
+        ballY = previousBallY = y;
+        ballZ = previousBallZ = z;
+        freeSteps = 0;
+    }
+
+    //changing the ball or the geometry from outside ends a free flight, it was only free for the old values
+    public void setVelocityX(double velocityX) {
+        this.velocityX = velocityX;
+        freeSteps = 0;
+    }
+
+    public void setVelocityY(double velocityY) {
+        this.velocityY = velocityY;
+        freeSteps = 0;
+    }
+
+    public void setVelocityZ(double velocityZ) {
+        this.velocityZ = velocityZ;
+        freeSteps = 0;
+    }
+
+    public void setBallRadius(double ballRadius) {
+        this.ballRadius = ballRadius;
+        freeSteps = 0;
+    }
+
+    public void setWheelY(double wheelY) {
+        this.wheelY = wheelY;
+        freeSteps = 0;
+    }
+
+    public void setFrameHeight(double frameHeight) {
+        this.frameHeight = frameHeight;
+        freeSteps = 0;
+    }
+
+    /**
+     * turns the wheel without interpolating from its previous angle
+     */
+    public void setWheelAngle(double wheelAngle) {
+        this.wheelAngle = previousWheelAngle = wheelAngle;
+    }
+
+    /**
+     * @param alpha 0 for the state before the last step, 1 for the current state
+     */
+    public double getInterpolatedBallX(double alpha) {
+        return previousBallX + (ballX - previousBallX) * alpha;
+    }
+
+    public double getInterpolatedBallY(double alpha) {
+        return previousBallY + (ballY - previousBallY) * alpha;
+    }
+
+    public double getInterpolatedBallZ(double alpha) {
+        return previousBallZ + (ballZ - previousBallZ) * alpha;
+    }
+
+    public double getInterpolatedWheelAngle(double alpha) {
+        return interpolateAngle(previousWheelAngle, wheelAngle, alpha);
+    }
+
+    static double interpolateAngle(double previous, double current, double alpha) {
+        double delta = current - previous;
+        // the angle wraps at 360, take the short way
+        if (delta < -180) {
+            delta += 360;
+        } else if (delta > 180) {
+            delta -= 360;
+        }
+        return (previous + delta * alpha + 360) % 360;
+    }
+
+    /**
+     * @return clockwise angle of the ball around the y-axis in degrees, 0 on the positive x-axis
+     */
+    public static double getBallAngle(double ballX, double ballZ) {
+        double rad = Math.atan2(ballZ, ballX);
+        // resulting angle is from 0->pi and -pi->0, so make sure it goes the full circle 0->2pi
+        if (rad < 0) {
+            rad = 2 * Math.PI + rad;
+        }
+        return 360 - Math.toDegrees(rad);
+    }
+
+    /**
+     * @return fraction of the wheel circumference below the ball, segments are laid out along it
+     */
+    public double getBallFraction() {
+        // add 360 so we get positive (modulus) over possibly negative remainder
+        return (360 + getBallAngle(ballX, ballZ) - wheelAngle) % 360 / 360;
+    }
+
+    /**
+     * performs a given amount of steps moving ball and wheel around and handling collisions,
+     * none of the steps allocates anything
+     */
+    public void tick(int steps) {
+        for (int i = 0; i < steps; i++) {
+            step();
+        }
+    }
+
+    private void step() {
+        ++steps;
+        previousBallX = ballX;
+        previousBallY = ballY;
+        previousBallZ = ballZ;
+        previousWheelAngle = wheelAngle;
+
+        //check if the ball was below its min speed for 3 ticks, if it was set its velocity to 0
+        //this prevents the ball from "wobbeling" forever
+        double speed = Math.sqrt(velocityX * velocityX + velocityY * velocityY + velocityZ * velocityZ);
+        cntTicksBallBelowMinSpeed = speed <= MINIMAL_BALL_SPEED ? cntTicksBallBelowMinSpeed + 1 : 0;
+        if (cntTicksBallBelowMinSpeed >= TICKS_UNTIL_BALL_COUNTS_AS_STOPPED) {
+            velocityX = 0;
+            velocityY = 0;
+            velocityZ = 0;
+
+            if (this.spinning) {
+                this.spinning = false;
+                if (listener != null) listener.onBallStopped();
+            }
+        }
+
+
+        //rotate the wheel, unless its rotating slower than minimum-rotation-speed
+        if (wheelSpeed > MINIMAL_WHEEL_ROTATION) {
+            wheelSpeed -= WHEEL_ROTATION_REDUCTION;
+            wheelAngle = (wheelAngle + wheelSpeed) % 360;
+        } else {
+            wheelSpeed = 0;
+        }
+
+        //move the ball, bouncing off everything it hits on its way
+        //far away from all colliders there is nothing to hit, so there is no need to look for impacts
+        if (freeSteps > 0) {
+            --freeSteps;
+            ballX += velocityX;
+            ballY += velocityY;
+            ballZ += velocityZ;
+        } else {
+            move(1);
+        }
+
+        //apply gravity
+        velocityY += GRAVITY;
+
+        //right after an impact the ball touches a collider, no need to look for free steps then
+        if (freeSteps == 0 && impactCollider == null)
+            freeSteps = countFreeSteps();
+    }
+
+    /**
+     * spins with a fresh seed, see getLastSeed()
+     */
+    public void spin() {
+        spin(ThreadLocalRandom.current().nextLong());
+    }
+
+    /**
+     * spins with a generator of LuckyRandom.create(seed), the same seed on the same state gives the same spin
+     */
+    public void spin(long seed) {
+        spin(seed, false);
+    }
+
+    /**
+     * spins with a generator of LuckyRandom.create(seed), the same seed on the same state gives the same spin
+     *
+     * @param randomPhase turn the wheel by a uniformly random angle before the first step.
+     *                    The wheel angle has no influence on the ball, so this doesn't change when and where
+     *                    the ball stops, but it makes the stop position relative to the wheel uniformly distributed,
+     *                    whatever the ball does. Spins selected by their duration stay fair this way.
+     */
+    public void spin(long seed, boolean randomPhase) {
+        lastSeed = seed;
+        LuckyRandom random = LuckyRandom.create(seed);
+        spin(random);
+
+        if (randomPhase)
+            setWheelAngle((wheelAngle + 360 * random.nextDouble()) % 360);
+    }
+
+    /**
+     * spins like spin(seed, true), but sets the wheel to wheelSpeed instead of speeding it up.
+     * The wheel keeps pushing the ball as long as it turns, so its speed decides how long a spin lasts,
+     * see LuckySpinDurationSolver
+     */
+    public void spin(long seed, double wheelSpeed) {
+        spin(seed, true);
+        this.wheelSpeed = Math.max(0, Math.min(wheelSpeed, MAX_WHEEL_SPEED));
+    }
+
+    /**
+     * gives the ball a random push and speeds up the wheel, the world itself doesn't log,
+     * so headless simulations can spin it millions of times
+     */
+    public void spin(LuckyRandom r) {
+        //generates random Values for the x- and z-velocity of the ball and set it
+        double randomValue = MINIMAL_BALL_STARTING_SPEED + (MAX_BALL_SPEED - MINIMAL_BALL_STARTING_SPEED) * r.nextDouble();
+        boolean randomBoolean = r.nextBoolean();
+
+        velocityX = randomBoolean ? randomValue : -randomValue;
+
+        randomValue = MINIMAL_BALL_STARTING_SPEED + (MAX_BALL_SPEED - MINIMAL_BALL_STARTING_SPEED) * r.nextDouble();
+        randomBoolean = r.nextBoolean();
+        velocityZ = randomBoolean ? randomValue : -randomValue;
+
+
+        //set fixed wheel rotation speed
+        wheelSpeed = wheelSpeed + BASE_WHEEL_SPEED > MAX_WHEEL_SPEED ? MAX_WHEEL_SPEED : wheelSpeed + BASE_WHEEL_SPEED;
+        this.spinning = true;
+        steps = 0;
+        freeSteps = 0;
+    }
+
+    /**
+     * stops moving objects and resets the balls position
+     */
+    public void reset() {
+        cntTicksBallBelowMinSpeed = TICKS_UNTIL_BALL_COUNTS_AS_STOPPED;
+        velocityX = 0;
+        velocityY = 0;
+        velocityZ = 0;
+        setBallPosition(0, wheelY - LuckyWheelGeometry.COLON_RADIUS - ballRadius * 3, 0);
+        wheelSpeed = 0;
+        this.spinning = false;
+    }
+
+    /**
+     * adds momentum to the ball based on the wheels rotation speed
+     */
+    private void addMomentumToBall() {
+        //rotate a second vector pointing from y-axis to the balls xz-pos, sin and cos are only computed once
+        double angle = Math.toRadians(wheelSpeed);
+        double sin = Math.sin(angle);
+        double cos = Math.cos(angle);
+        double rotatedX = ballX * cos + ballZ * sin;
+        double rotatedZ = -ballX * sin + ballZ * cos;
+
+        //calc vector which describes the change on the ball's velocity
+        setNormalized(rotatedX - ballX, -.0001, rotatedZ - ballZ);
+        double momentum = wheelSpeed * WHEEL_MOMENTUM;
+
+        //apply the change
+        velocityX += normalX * momentum;
+        velocityY += normalY * momentum;
+        velocityZ += normalZ * momentum;
+    }
+
+    /**
+     * moves the ball along its velocity for the given number of steps.
+     * The ball is swept against all colliders, so it bounces off at the exact time of impact
+     * and continues with the rest of the step, no matter how fast it is.
+     */
+    void move(double duration) {
+        double remaining = duration;
+        for (int impacts = 0; impacts < MAX_IMPACTS_PER_STEP && remaining > 0; impacts++) {
+            findImpact(remaining);
+
+            ballX += velocityX * impactTime;
+            ballY += velocityY * impactTime;
+            ballZ += velocityZ * impactTime;
+            remaining -= impactTime;
+
+            if (impactCollider == null)
+                return;
+            collide(impactCollider);
+        }
+    }
+
+    /**
+     * @return true if the last move() didn't hit any collider
+     */
+    boolean isLastMoveFree() {
+        return impactCollider == null;
+    }
+
+    /**
+     * Counts the upcoming steps in which the ball surely doesn't reach any collider.
+     * The steps are chosen by the speed of the ball and its distance to the nearest collider:
+     * a fast ball close to the wheel looks for impacts in every step, a ball flying high above it
+     * only once in many steps. Free steps move exactly like steps without an impact do,
+     * so skipping the search doesn't change the outcome. The wheel only acts on the ball on an impact,
+     * so its speed doesn't limit a free flight.
+     */
+    int countFreeSteps() {
+        //the gaps are measured like the colliders in findImpact(), each shrinks by at most the distance travelled
+        double distance = Math.sqrt(ballX * ballX + ballZ * ballZ);
+        double offset = ballRadius * SQRT_2;
+        double height = wheelY - ballY;
+        double gap = Math.min(height - ballRadius, LuckyWheelGeometry.WHEEL_RADIUS + frameHeight - distance);
+        gap = Math.min(gap, distance + height - LuckyWheelGeometry.COLON_RADIUS - offset);
+        gap = Math.min(gap, height - distance + LuckyWheelGeometry.WHEEL_RADIUS - offset);
+        gap -= FREE_FLIGHT_MARGIN;
+        if (gap <= 0)
+            return 0;
+
+        //after n steps the ball travelled at most speed * n + GRAVITY * n^2 / 2 along all axes together
+        double speed = Math.abs(velocityX) + Math.abs(velocityY) + Math.abs(velocityZ);
+        double steps = (Math.sqrt(speed * speed + 2 * GRAVITY * gap) - speed) / GRAVITY;
+        return (int) Math.min(MAX_FREE_STEPS, Math.floor(steps));
+    }
+
+    /**
+     * finds the first collider the ball hits within maxTime and stores it with the time of impact,
+     * impactCollider is null if the ball moves freely until maxTime
+     *
+     * All colliders are rotationally symmetric around the y-axis, the area the center of the ball may move in
+     * is bounded by the floor one radius above the wheel, the surfaces of the center colon and the frame
+     * moved out by one radius and the border.
+     */
+    private void findImpact(double maxTime) {
+        impactTime = Double.POSITIVE_INFINITY;
+        impactCollider = null;
+
+        if (velocityY > 0) {
+            //negative if the ball is already below the floor, let it bounce off right away
+            double floorTime = Math.max(0, (wheelY - ballRadius - ballY) / velocityY);
+            if (floorTime <= maxTime)
+                setImpact(floorTime, Collider.GROUND);
+        }
+
+        //both cones have an angle of 45 deg, so their distance to the y-axis changes like the height
+        double distance = Math.sqrt(ballX * ballX + ballZ * ballZ);
+        double offset = ballRadius * SQRT_2;
+        setImpact(radialImpactTime(distance, LuckyWheelGeometry.COLON_RADIUS + offset - wheelY + ballY, velocityY,
+                false, maxTime), Collider.CENTER_COLON);
+        setImpact(radialImpactTime(distance, LuckyWheelGeometry.WHEEL_RADIUS - offset + wheelY - ballY, -velocityY,
+                true, maxTime), Collider.FRAME);
+        setImpact(radialImpactTime(distance, LuckyWheelGeometry.WHEEL_RADIUS + frameHeight, 0,
+                true, maxTime), Collider.BORDER);
+
+        if (impactCollider == null)
+            impactTime = maxTime;
+    }
+
+    private void setImpact(double time, Collider collider) {
+        if (time < impactTime) {
+            impactTime = time;
+            impactCollider = collider;
+        }
+    }
+
+    /**
+     * time until the center of the ball crosses a surface at the distance a + b * t from the y-axis,
+     * moving to its forbidden side
+     *
+     * @param distance current distance of the ball to the y-axis
+     * @param inside   true if the ball has to stay within that distance, false if it has to stay outside of it
+     * @return time of impact or positive infinity if there is none within maxTime
+     */
+    private double radialImpactTime(double distance, double a, double b, boolean inside, double maxTime) {
+        double sign = inside ? -1 : 1;
+        double gap = sign * (distance - a);
+
+        //touching or already behind the surface and moving on into it
+        if (gap <= CONTACT_DISTANCE && approaches(0, distance, b, sign))
+            return 0;
+
+        //the gap shrinks by at most the horizontal speed plus b per step, most of the time the ball is far away
+        if (gap > (Math.abs(velocityX) + Math.abs(velocityZ) + Math.abs(b)) * maxTime + CONTACT_DISTANCE)
+            return Double.POSITIVE_INFINITY;
+
+        //the distance to the y-axis is |position + velocity * t|, so the crossings solve a quadratic equation
+        double qa = velocityX * velocityX + velocityZ * velocityZ - b * b;
+        double qb = 2 * (ballX * velocityX + ballZ * velocityZ - a * b);
+        double qc = distance * distance - a * a;
+        double discriminant = qb * qb - 4 * qa * qc;
+        if (discriminant < 0)
+            return Double.POSITIVE_INFINITY;
+
+        //numerically stable roots, a root at infinity or NaN for a vanishing qa doesn't pass the checks below
+        double q = -.5 * (qb + Math.copySign(Math.sqrt(discriminant), qb));
+        double first = Math.min(q / qa, qc / q);
+        double second = Math.max(q / qa, qc / q);
+
+        if (isImpact(first, a, b, sign, maxTime))
+            return first;
+        if (isImpact(second, a, b, sign, maxTime))
+            return second;
+        return Double.POSITIVE_INFINITY;
+    }
+
+    private boolean isImpact(double time, double a, double b, double sign, double maxTime) {
+        //roots at a negative distance come from squaring the equation
+        return time > 0 && time <= maxTime && a + b * time >= 0 && approaches(time, a + b * time, b, sign);
+    }
+
+    /**
+     * @param distance distance of the ball to the y-axis at the given time
+     * @return true if the ball moves to the forbidden side of the surface at the given time
+     */
+    private boolean approaches(double time, double distance, double b, double sign) {
+        //on the y-axis the ball moves away from it in any direction
+        if (distance <= 0)
+            return sign * (velocityX * velocityX + velocityZ * velocityZ - b * b) < 0;
+
+        //radial speed times distance, spares the square root
+        double x = ballX + velocityX * time;
+        double z = ballZ + velocityZ * time;
+        return sign * (x * velocityX + z * velocityZ - b * distance) < 0;
+    }
+
+    /**
+     * bounces the ball touching the collider off it
+     */
+    private void collide(Collider collider) {
+        setNormal(collider);
+        reflectVelocity();
+
+        if (collider == Collider.GROUND || collider == Collider.CENTER_COLON)
+            addMomentumToBall();
+
+        //reduce balls velocity by the matching cost
+        velocityY *= VERTICAL_BOUNCINESS;
+        velocityZ *= COLLISION_REDUCTION;
+        velocityX *= COLLISION_REDUCTION;
+
+        //the reduction can turn the velocity back into the collider, the ball slides along it then
+        setNormal(collider);
+        double scalar = velocityX * normalX + velocityY * normalY + velocityZ * normalZ;
+        if (scalar < 0) {
+            velocityX -= normalX * scalar;
+            velocityY -= normalY * scalar;
+            velocityZ -= normalZ * scalar;
+        }
+    }
+
+    /**
+     * stores the normal of the collider at the balls position, pointing to the side the ball is on
+     */
+    private void setNormal(Collider collider) {
+        switch (collider) {
+            case GROUND:
+                setNormalized(0, -1, 0);
+                break;
+            case CENTER_COLON:
+                //the tip of the colon has no direction, the ball can only fall on it from above
+                if (ballX == 0 && ballZ == 0) {
+                    setNormalized(0, -1, 0);
+                    break;
+                }
+                //base-edge of the triangle
+                setNormalized(ballX, 0, ballZ);
+                //add vec pointing up on the y-axis, this should get normal vector relative to the hypotenuse
+                setNormalized(normalX, normalY - 1, normalZ);
+                break;
+            case FRAME:
+                setNormalized(-ballX, 0, -ballZ);
+                setNormalized(normalX, normalY - 1, normalZ);
+                break;
+            case BORDER:
+                setNormalized(-ballX, 0, -ballZ);
+                break;
+        }
+    }
+
+    /**
+     * reflects the ball velocity on the current normal
+     */
+
+    private void reflectVelocity() {
+        //calculate reflected vector
+        double scalar = velocityX * normalX + velocityY * normalY + velocityZ * normalZ;
+        scalar *= 2;
+        velocityX -= normalX * scalar;
+        velocityY -= normalY * scalar;
+        velocityZ -= normalZ * scalar;
+    }
+
+    /**
+     * stores the normalized vector (x, y, z) as current normal
+     */
+    private void setNormalized(double x, double y, double z) {
+        double norm = 1.0 / Math.sqrt(x * x + y * y + z * z);
+        normalX = x * norm;
+        normalY = y * norm;
+        normalZ = z * norm;
+    }
+
+    private enum Collider {
+        GROUND, CENTER_COLON, FRAME, BORDER
+    }
+}
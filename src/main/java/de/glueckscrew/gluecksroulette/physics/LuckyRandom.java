@@ -0,0 +1,36 @@
+package de.glueckscrew.gluecksroulette.physics;
+
+/**
+ * Source of randomness for spins.
+ * Generators are seedable, so a spin can be replayed from its seed, and splittable,
+ * so parallel simulations get independent streams without sharing a generator.
+ * Implementations are not thread-safe, every thread splits off a generator of its own.
+ *
+ * @author Paul Weisser
+ */
+public interface LuckyRandom {
+    /**
+     * @return generator used for spins of the playground
+     */
+    static LuckyRandom create(long seed) {
+        return new LuckyXoroshiroRandom(seed);
+    }
+
+    long nextLong();
+
+    /**
+     * @return uniformly distributed value in [0, 1)
+     */
+    default double nextDouble() {
+        return (nextLong() >>> 11) * 0x1.0p-53;
+    }
+
+    default boolean nextBoolean() {
+        return nextLong() < 0;
+    }
+
+    /**
+     * @return new generator with a stream independent of this one, advances this generator
+     */
+    LuckyRandom split();
+}
@@ -0,0 +1,131 @@
+package de.glueckscrew.gluecksroulette.physics;
+
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Picks spins that stop within a window of steps.
+ * The wheel keeps pushing the ball as long as it turns, so a spin stops shortly after the wheel does,
+ * unless the ball runs longer on its own. The length of a spin is therefore chosen by the speed
+ * the wheel is launched with: for a candidate seed the speed is bisected until the spin stops within the window,
+ * the launch of a seed whose ball alone already runs beyond the window can't be shortened, the next seed is tried.
+ *
+ * The wheel reaches at most LuckyPhysicsWorld.MAX_WHEEL_SPEED, so no spin lasts longer than about 20 seconds.
+ * The first spin after a reset runs at least about 5 seconds, later ones start from a pocket and can stop
+ * after a second already. Windows outside of that are missed, the spin closest to the window is taken then.
+ *
+ * Choosing spins by their duration would bias where the ball stops, so the chosen spin is played with a
+ * random wheel phase, which makes the stop position relative to the wheel uniform again.
+ *
+ * @author Paul Weisser
+ */
+class LuckySpinDurationSolver {
+    private static final Logger LOGGER = Logger.getLogger(LuckySpinDurationSolver.class.getSimpleName());
+
+    private static final int TICK_BATCH = 16;
+    /**
+     * seeds tried before the closest spin is taken, only seeds whose ball runs too long on its own are dropped
+     */
+    private static final int MAX_CANDIDATES = 16;
+    /**
+     * halvings of the wheel speed per seed, the last one moves the stop by less than a step
+     */
+    private static final int BISECTION_STEPS = 14;
+
+    private final LuckyPhysicsWorld start;
+    private final LuckyPhysicsWorld world;
+    private final long minSteps;
+    private final long maxSteps;
+    private long stopStep;
+
+    // launch stopping closest to the window so far
+    private LuckySpinLaunch best;
+    private long bestDistance = Long.MAX_VALUE;
+
+    private LuckySpinDurationSolver(LuckyPhysicsWorld start, long minSteps, long maxSteps) {
+        this.start = start;
+        this.minSteps = minSteps;
+        this.maxSteps = Math.max(maxSteps, minSteps);
+        world = start.copy();
+        world.setListener(() -> stopStep = world.getSteps());
+    }
+
+    /**
+     * @param start    state the spin starts from, it is not changed
+     * @param seed     seed of the candidate seeds, the same seed on the same state always gives the same result
+     * @param minSteps the ball must not stop before this step
+     * @param maxSteps the ball must stop by this step
+     * @return launch of a spin stopping within the window, the one closest to the window if none does
+     */
+    static LuckySpinLaunch solve(LuckyPhysicsWorld start, long seed, long minSteps, long maxSteps) {
+        LuckySpinDurationSolver solver = new LuckySpinDurationSolver(start, minSteps, maxSteps);
+        LuckyRandom candidates = LuckyRandom.create(seed);
+        for (int i = 0; i < MAX_CANDIDATES; i++) {
+            LuckySpinLaunch launch = solver.solveSeed(candidates.nextLong());
+            if (launch != null)
+                return launch;
+        }
+
+        LOGGER.log(Level.WARNING, String.format("No spin stops within %d to %d steps, taking the closest one!",
+                minSteps, maxSteps));
+        return solver.best;
+    }
+
+    /**
+     * @return launch of the seed stopping within the window, null if there is none
+     */
+    private LuckySpinLaunch solveSeed(long seed) {
+        // with the wheel standing still the ball runs on its own, no spin of this seed is shorter
+        double slow = 0;
+        LuckySpinLaunch launch = new LuckySpinLaunch(seed, slow);
+        long stop = simulate(launch);
+        if (stop > maxSteps) return null;
+        if (stop >= minSteps) return launch;
+
+        // no spin of this seed is longer than the one with the fastest wheel
+        double fast = LuckyPhysicsWorld.MAX_WHEEL_SPEED;
+        launch = new LuckySpinLaunch(seed, fast);
+        stop = simulate(launch);
+        if (stop < minSteps) return null;
+        if (stop <= maxSteps) return launch;
+
+        // the spin stops later the faster the wheel turns, aim at the middle of the window
+        long target = (minSteps + maxSteps) / 2;
+        for (int i = 0; i < BISECTION_STEPS; i++) {
+            double wheelSpeed = (slow + fast) / 2;
+            launch = new LuckySpinLaunch(seed, wheelSpeed);
+            stop = simulate(launch);
+            if (stop >= minSteps && stop <= maxSteps) return launch;
+
+            if (stop < target) {
+                slow = wheelSpeed;
+            } else {
+                fast = wheelSpeed;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * fast-forwards the launch on the copy of the world and remembers it if it stops closest to the window
+     *
+     * @return step the spin stops in, a step beyond maxSteps if it runs longer
+     */
+    private long simulate(LuckySpinLaunch launch) {
+        world.copyFrom(start);
+        stopStep = -1;
+        launch.spin(world);
+        // no need to simulate beyond the window
+        while (world.isSpinning() && world.getSteps() <= maxSteps) {
+            world.tick(TICK_BATCH);
+        }
+        long stop = stopStep < 0 ? world.getSteps() : stopStep;
+
+        long distance = stop < minSteps ? minSteps - stop : Math.max(0, stop - maxSteps);
+        if (distance < bestDistance) {
+            bestDistance = distance;
+            best = launch;
+        }
+        return stop;
+    }
+}
@@ -0,0 +1,24 @@
+package de.glueckscrew.gluecksroulette.physics;
+
+import lombok.Getter;
+
+/**
+ * Seed and wheel speed of a spin chosen by LuckySpinDurationSolver,
+ * spin(world) starts it like LuckyPhysicsWorld.spin(long seed, double wheelSpeed)
+ *
+ * @author Paul Weisser
+ */
+@Getter
+class LuckySpinLaunch {
+    private final long seed;
+    private final double wheelSpeed;
+
+    LuckySpinLaunch(long seed, double wheelSpeed) {
+        this.seed = seed;
+        this.wheelSpeed = wheelSpeed;
+    }
+
+    void spin(LuckyPhysicsWorld world) {
+        world.spin(seed, wheelSpeed);
+    }
+}
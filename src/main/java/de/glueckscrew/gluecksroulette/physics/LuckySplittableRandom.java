@@ -0,0 +1,40 @@
+package de.glueckscrew.gluecksroulette.physics;
+
+import java.util.SplittableRandom;
+
+/**
+ * LuckyRandom backed by java.util.SplittableRandom
+ *
+ * @author Paul Weisser
+ */
+public class LuckySplittableRandom implements LuckyRandom {
+    private final SplittableRandom random;
+
+    public LuckySplittableRandom(long seed) {
+        this(new SplittableRandom(seed));
+    }
+
+    private LuckySplittableRandom(SplittableRandom random) {
+        this.random = random;
+    }
+
+    @Override
+    public long nextLong() {
+        return random.nextLong();
+    }
+
+    @Override
+    public double nextDouble() {
+        return random.nextDouble();
+    }
+
+    @Override
+    public boolean nextBoolean() {
+        return random.nextBoolean();
+    }
+
+    @Override
+    public LuckyRandom split() {
+        return new LuckySplittableRandom(random.split());
+    }
+}
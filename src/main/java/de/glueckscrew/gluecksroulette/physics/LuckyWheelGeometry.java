@@ -0,0 +1,31 @@
+package de.glueckscrew.gluecksroulette.physics;
+
+/**
+ * Sizes of the wheel and the ball the simulation runs on.
+ * They live next to the physics, so the headless world doesn't depend on the playground,
+ * the playground builds its nodes from the same values.
+ *
+ * @author Paul Weisser
+ */
+public final class LuckyWheelGeometry {
+    public static final int WHEEL_RADIUS = 400;
+    public static final double COLON_RADIUS = 0.25d * WHEEL_RADIUS;
+    public static final double WHEEL_DEFAULT_Y = 470.5;
+    public static final double BALL_RADIUS = 10;
+
+    /**
+     * outer radius of the frame relative to its inner radius
+     */
+    public static final double FRAME_RESIZE_FACTOR = 1.25;
+    private static final double FRAME_ANGLE_IN_RADIAN = Math.toRadians(45);
+
+    private LuckyWheelGeometry() {
+    }
+
+    /**
+     * @return height of a frame around a wheel of the given radius
+     */
+    public static double getFrameHeight(double innerRadius) {
+        return Math.tan(FRAME_ANGLE_IN_RADIAN) * (FRAME_RESIZE_FACTOR - 1) * innerRadius;
+    }
+}
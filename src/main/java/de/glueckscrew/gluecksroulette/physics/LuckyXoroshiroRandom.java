@@ -0,0 +1,44 @@
+package de.glueckscrew.gluecksroulette.physics;
+
+/**
+ * xoroshiro128++ by Blackman and Vigna, two longs of state and a handful of shifts per value.
+ * The state is seeded through SplitMix64, so similar seeds still give unrelated streams.
+ *
+ * @author Paul Weisser
+ */
+public class LuckyXoroshiroRandom implements LuckyRandom {
+    private static final long GOLDEN_GAMMA = 0x9e3779b97f4a7c15L;
+
+    private long s0, s1;
+
+    public LuckyXoroshiroRandom(long seed) {
+        long x = seed;
+        s0 = mix(x += GOLDEN_GAMMA);
+        s1 = mix(x + GOLDEN_GAMMA);
+        // the all-zero state would only ever produce zeros
+        if ((s0 | s1) == 0)
+            s1 = GOLDEN_GAMMA;
+    }
+
+    @Override
+    public long nextLong() {
+        long result = Long.rotateLeft(s0 + s1, 17) + s0;
+
+        s1 ^= s0;
+        s0 = Long.rotateLeft(s0, 49) ^ s1 ^ (s1 << 21);
+        s1 = Long.rotateLeft(s1, 28);
+
+        return result;
+    }
+
+    @Override
+    public LuckyRandom split() {
+        return new LuckyXoroshiroRandom(nextLong());
+    }
+
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+}
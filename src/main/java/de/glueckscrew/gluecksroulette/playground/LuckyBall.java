@@ -9,7 +9,7 @@ import lombok.Setter;
 
 /**
  * This class extends the javafx-sphere-class by velocity.
- * implemented as a singleton
+ * getInstance() returns the ball of the default playground
  *
  * @author Paul Weisser
  */
@@ -34,7 +34,7 @@ public class LuckyBall extends Sphere {
         return LuckyBall.instance;
     }
 
-    private LuckyBall() {
+    public LuckyBall() {
         this.velocity = new Vec3d();
         setMaterial(material);
     }
@@ -39,18 +39,13 @@ public class LuckyCone extends MeshView {
         int[] faces = new int[faceCount * 6];
         int[] smoothing = new int[faceCount];
 
+        double[] circle = LuckyMeshUtil.circle(MESH_DIVISIONS);
         int pPos = 0, tPos = 0;
 
+        pPos = LuckyMeshUtil.writeRing(points, pPos, circle, MESH_DIVISIONS, radius, height);
         for (int i = 0; i < MESH_DIVISIONS; ++i) {
-            // angle in radian
-            double a = dA * i * 2 * Math.PI;
-
-            points[pPos] = (float) (Math.sin(a) * radius);
-            points[pPos + 2] = (float) (Math.cos(a) * radius);
-            points[pPos + 1] = height;
             tPoints[tPos] = 1 - dA * i;
             tPoints[tPos + 1] = 1 - textureDelta;
-            pPos += 3;
             tPos += 2;
         }
 
@@ -79,12 +74,7 @@ public class LuckyCone extends MeshView {
         points[pPos + 5] = 0;
 
         // top cap
-        for (int i = 0; i <= MESH_DIVISIONS; ++i) {
-            double a = (i < MESH_DIVISIONS) ? (dA * i * 2) * Math.PI : 0;
-            tPoints[tPos] = 0.5f + (float) (Math.sin(a) * 0.5f);
-            tPoints[tPos + 1] = 0.5f - (float) (Math.cos(a) * 0.5f);
-            tPos += 2;
-        }
+        tPos = LuckyMeshUtil.writeCapTexCoords(tPoints, tPos, circle, MESH_DIVISIONS, true);
 
         tPoints[tPos] = .5f;
         tPoints[tPos + 1] = .5f;
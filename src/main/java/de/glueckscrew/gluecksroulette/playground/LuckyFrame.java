@@ -1,5 +1,6 @@
 package de.glueckscrew.gluecksroulette.playground;
 
+import de.glueckscrew.gluecksroulette.physics.LuckyWheelGeometry;
 import javafx.scene.shape.MeshView;
 import javafx.scene.shape.TriangleMesh;
 import lombok.Getter;
@@ -10,11 +11,10 @@ import lombok.Getter;
  *
  * @author Sebastian Schmitt
  *
- * Singleton by Paul Weißer for consitency
+ * getInstance() returns the frame of the default playground
  */
 public class LuckyFrame extends MeshView {
-    private static final double ANGLE_IN_RADIAN = Math.toRadians(45);
-    private static final double RESIZE_FACTOR = 1.25;
+    private static final double RESIZE_FACTOR = LuckyWheelGeometry.FRAME_RESIZE_FACTOR;
 
     private static LuckyFrame instance;
 
@@ -32,22 +32,27 @@ public class LuckyFrame extends MeshView {
         return LuckyFrame.instance;
     }
 
-    private LuckyFrame() {
+    public LuckyFrame() {
 
     }
 
 
     public void setInnerRadius(double radius) {
         double largeRadius = RESIZE_FACTOR * radius;
-
-        double diff = largeRadius - radius;
-        height = Math.tan(ANGLE_IN_RADIAN) * diff;
+        height = getHeight(radius);
 
         setMesh(createMesh((float) largeRadius, (float) radius, (float) height));
         setTranslateY(-height / 2);
     }
 
 
+    /**
+     * @return height of a frame around a wheel of the given radius, see LuckyWheelGeometry.getFrameHeight()
+     */
+    public static double getHeight(double innerRadius) {
+        return LuckyWheelGeometry.getFrameHeight(innerRadius);
+    }
+
     private static TriangleMesh createMesh(float largeRadius, float radius, float height) {
         final int nPonits = MESH_DIVISIONS * 2 + 2;
         final int tcCount = (MESH_DIVISIONS + 1) * 4 + 1; // 2 cap tex
@@ -63,18 +68,13 @@ public class LuckyFrame extends MeshView {
         int[] faces = new int[faceCount * 6];
         int[] smoothing = new int[faceCount];
 
+        double[] circle = LuckyMeshUtil.circle(MESH_DIVISIONS);
         int pPos = 0, tPos = 0;
 
+        pPos = LuckyMeshUtil.writeRing(points, pPos, circle, MESH_DIVISIONS, largeRadius, -height);
         for (int i = 0; i < MESH_DIVISIONS; ++i) {
-            // angle in radian
-            double a = dA * i * 2 * Math.PI;
-
-            points[pPos] = (float) (Math.sin(a) * largeRadius);
-            points[pPos + 2] = (float) (Math.cos(a) * largeRadius);
-            points[pPos + 1] = -height;
             tPoints[tPos] = 1 - dA * i;
             tPoints[tPos + 1] = 1 - textureDelta;
-            pPos += 3;
             tPos += 2;
         }
 
@@ -83,15 +83,10 @@ public class LuckyFrame extends MeshView {
         tPoints[tPos + 1] = 1 - textureDelta;
         tPos += 2;
 
+        pPos = LuckyMeshUtil.writeRing(points, pPos, circle, MESH_DIVISIONS, radius, height);
         for (int i = 0; i < MESH_DIVISIONS; ++i) {
-            // angle in radian
-            double a = dA * i * 2 * Math.PI;
-            points[pPos] = (float) (Math.sin(a) * radius);
-            points[pPos + 2] = (float) (Math.cos(a) * radius);
-            points[pPos + 1] = height;
             tPoints[tPos] = 1 - dA * i;
             tPoints[tPos + 1] = textureDelta;
-            pPos += 3;
             tPos += 2;
         }
 
@@ -110,12 +105,7 @@ public class LuckyFrame extends MeshView {
 
         // add cap central points
         // bottom cap
-        for (int i = 0; i <= MESH_DIVISIONS; ++i) {
-            double a = (i < MESH_DIVISIONS) ? (dA * i * 2) * Math.PI : 0;
-            tPoints[tPos] = (float) (Math.sin(a) * 0.5f) + 0.5f;
-            tPoints[tPos + 1] = (float) (Math.cos(a) * 0.5f) + 0.5f;
-            tPos += 2;
-        }
+        tPos = LuckyMeshUtil.writeCapTexCoords(tPoints, tPos, circle, MESH_DIVISIONS, false);
 
         int fIndex = 0;
 
@@ -0,0 +1,256 @@
+package de.glueckscrew.gluecksroulette.playground;
+
+import javafx.geometry.VPos;
+import javafx.scene.SnapshotParameters;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.image.WritableImage;
+import javafx.scene.paint.Color;
+import javafx.scene.paint.PhongMaterial;
+import javafx.scene.shape.CullFace;
+import javafx.scene.shape.DrawMode;
+import javafx.scene.shape.MeshView;
+import javafx.scene.shape.TriangleMesh;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * All labels of the wheel drawn once into a texture instead of a Text node per student.
+ * Every label is a quad lying on the wheel where the Text of its segment would be,
+ * its texture coordinates point to where LuckyLabelPacking placed the label in the texture.
+ *
+ * The texture is only drawn again if the labels change. If only the offsets and steps of the segments change,
+ * only the quads of the segments that moved are rewritten. Labels that can't be packed into the texture are left
+ * to the segments, see update().
+ *
+ * @author Sebastian Schmitt
+ */
+public class LuckyLabelAtlas extends MeshView {
+    private static final Logger LOGGER = Logger.getLogger(LuckyLabelAtlas.class.getSimpleName());
+
+    private final TriangleMesh mesh = new TriangleMesh();
+    private final PhongMaterial material = new PhongMaterial(Color.BLACK);
+
+    // labels the atlas was last built for, null before the first update
+    private String[] labels;
+    // packing the texture was drawn for, null if the labels couldn't be packed
+    private LuckyLabelPacking packing;
+    // packing handed in by setPacking(), used by the next update if it was made for the labels
+    private LuckyLabelPacking nextPacking;
+
+    // offsets and steps the quads were last written for
+    private double[] offsets = new double[0];
+    private double[] steps = new double[0];
+    private float[] points = new float[0];
+
+    public LuckyLabelAtlas() {
+        // the labels light themselves like a Text node, the diffuse map only lends them its transparency
+        material.setSpecularColor(Color.TRANSPARENT);
+        setMaterial(material);
+
+        setCullFace(CullFace.NONE);
+        setDrawMode(DrawMode.FILL);
+        setMouseTransparent(true);
+        setMesh(mesh);
+    }
+
+    /**
+     * @return where the labels of the layouts go in the texture, null if they don't fit,
+     * may be called off the FX thread
+     */
+    static LuckyLabelPacking pack(LuckySegmentLayout[] layouts) {
+        String[] labels = new String[layouts.length];
+        double[] widths = new double[layouts.length];
+        double height = 0;
+        for (int i = 0; i < layouts.length; i++) {
+            labels[i] = layouts[i].getLabel();
+            widths[i] = layouts[i].getLabelWidth();
+            height = Math.max(height, layouts[i].getLabelHeight());
+        }
+        return LuckyLabelPacking.pack(labels, widths, height, LuckyLabelPacking.MAX_SIZE);
+    }
+
+    /**
+     * hands in a packing made in the background, so the next update only has to draw the texture
+     */
+    void setPacking(LuckyLabelPacking packing) {
+        nextPacking = packing;
+    }
+
+    /**
+     * brings the labels to the current names, offsets and steps of the segments
+     *
+     * @return false if the labels couldn't be packed into the texture, the segments have to show them then
+     */
+    public boolean update(List<LuckyStudentSegment> segments) {
+        if (isLabelsChanged(segments)) {
+            rebuild(segments);
+            return packing != null;
+        }
+        if (packing == null) return false;
+
+        for (int i = 0; i < segments.size(); i++) {
+            LuckyStudentSegment segment = segments.get(i);
+            if (offsets[i] == segment.getOffset() && steps[i] == segment.getStep()) continue;
+
+            writeQuad(i, segment);
+            mesh.getPoints().set(i * 12, points, i * 12, 12);
+        }
+        return true;
+    }
+
+    private boolean isLabelsChanged(List<LuckyStudentSegment> segments) {
+        if (labels == null || labels.length != segments.size()) return true;
+
+        for (int i = 0; i < segments.size(); i++) {
+            if (!labels[i].equals(segments.get(i).getLabel())) return true;
+        }
+        return false;
+    }
+
+    private void rebuild(List<LuckyStudentSegment> segments) {
+        String[] labels = new String[segments.size()];
+        double[] widths = new double[segments.size()];
+        double height = 0;
+        for (int i = 0; i < labels.length; i++) {
+            labels[i] = segments.get(i).getLabel();
+            widths[i] = segments.get(i).getLabelWidth();
+            height = Math.max(height, segments.get(i).getLabelHeight());
+        }
+
+        if (nextPacking != null && Arrays.equals(nextPacking.getLabels(), labels)) {
+            packing = nextPacking;
+        } else {
+            packing = LuckyLabelPacking.pack(labels, widths, height, LuckyLabelPacking.MAX_SIZE);
+        }
+        nextPacking = null;
+        this.labels = labels;
+
+        if (packing == null) {
+            LOGGER.log(Level.WARNING, "Labels don't fit into the atlas, the segments show them!");
+            material.setDiffuseMap(null);
+            material.setSelfIlluminationMap(null);
+            mesh.getPoints().clear();
+            mesh.getTexCoords().clear();
+            mesh.getFaces().clear();
+            return;
+        }
+
+        drawTexture();
+
+        if (offsets.length < labels.length) {
+            offsets = new double[labels.length];
+            steps = new double[labels.length];
+            points = new float[labels.length * 12];
+        }
+
+        float[] texCoords = new float[labels.length * 8];
+        int[] faces = new int[labels.length * 12];
+        for (int i = 0; i < labels.length; i++) {
+            writeQuad(i, segments.get(i));
+            writeTexCoords(texCoords, i, widths[i], height);
+
+            // p0 p2 p1 and p1 p2 p3, the texture coordinates are numbered like the points
+            int p = i * 4;
+            int f = i * 12;
+            faces[f] = p;
+            faces[f + 1] = p;
+            faces[f + 2] = p + 2;
+            faces[f + 3] = p + 2;
+            faces[f + 4] = p + 1;
+            faces[f + 5] = p + 1;
+            faces[f + 6] = p + 1;
+            faces[f + 7] = p + 1;
+            faces[f + 8] = p + 2;
+            faces[f + 9] = p + 2;
+            faces[f + 10] = p + 3;
+            faces[f + 11] = p + 3;
+        }
+
+        mesh.getPoints().setAll(points, 0, labels.length * 12);
+        mesh.getTexCoords().setAll(texCoords);
+        mesh.getFaces().setAll(faces);
+    }
+
+    /**
+     * draws the labels where the packing placed them, snapshots have to be taken on the FX thread
+     */
+    private void drawTexture() {
+        if (packing.getWidth() == 0 || packing.getHeight() == 0) {
+            material.setDiffuseMap(null);
+            material.setSelfIlluminationMap(null);
+            return;
+        }
+
+        Canvas canvas = new Canvas(packing.getWidth(), packing.getHeight());
+        GraphicsContext context = canvas.getGraphicsContext2D();
+        context.scale(packing.getScale(), packing.getScale());
+        context.setFont(LuckyStudentSegment.FONT);
+        context.setFill(LuckyStudentSegment.TEXT_COLOR);
+        context.setTextBaseline(VPos.TOP);
+        for (int i = 0; i < packing.getLabels().length; i++) {
+            context.fillText(packing.getLabels()[i], packing.getX(i) / packing.getScale(),
+                    packing.getY(i) / packing.getScale());
+        }
+
+        SnapshotParameters parameters = new SnapshotParameters();
+        parameters.setFill(Color.TRANSPARENT);
+        WritableImage texture = canvas.snapshot(parameters, null);
+        material.setDiffuseMap(texture);
+        material.setSelfIlluminationMap(texture);
+    }
+
+    /**
+     * writes the corners of the label of the segment where its Text node would be,
+     * running outwards along the middle of the segment
+     */
+    private void writeQuad(int label, LuckyStudentSegment segment) {
+        offsets[label] = segment.getOffset();
+        steps[label] = segment.getStep();
+
+        double angle = (segment.getOffset() + segment.getStep() / 2) * 2 * Math.PI;
+        double sin = Math.sin(angle);
+        double cos = Math.cos(angle);
+        double inner = LuckyPlayground.COLON_RADIUS
+                + (LuckyStudentSegment.MAX_TEXT_WIDTH - segment.getLabelWidth()) / 2;
+        double outer = inner + segment.getLabelWidth();
+        double halfHeight = segment.getLabelHeight() / 2;
+
+        int p = label * 12;
+        p = writeCorner(p, inner, -halfHeight, sin, cos);
+        p = writeCorner(p, outer, -halfHeight, sin, cos);
+        p = writeCorner(p, inner, halfHeight, sin, cos);
+        writeCorner(p, outer, halfHeight, sin, cos);
+    }
+
+    /**
+     * @param radial distance from the axis of the wheel
+     * @param down   distance along the direction that is down in the text
+     */
+    private int writeCorner(int p, double radial, double down, double sin, double cos) {
+        points[p] = (float) (cos * radial - sin * down);
+        points[p + 1] = (float) LuckyStudentSegment.TEXT_Y;
+        points[p + 2] = (float) (-sin * radial - cos * down);
+        return p + 3;
+    }
+
+    private void writeTexCoords(float[] texCoords, int label, double labelWidth, double labelHeight) {
+        float left = (float) packing.getX(label) / packing.getWidth();
+        float top = (float) packing.getY(label) / packing.getHeight();
+        float right = (float) ((packing.getX(label) + labelWidth * packing.getScale()) / packing.getWidth());
+        float bottom = (float) ((packing.getY(label) + labelHeight * packing.getScale()) / packing.getHeight());
+
+        int t = label * 8;
+        texCoords[t] = left;
+        texCoords[t + 1] = top;
+        texCoords[t + 2] = right;
+        texCoords[t + 3] = top;
+        texCoords[t + 4] = left;
+        texCoords[t + 5] = bottom;
+        texCoords[t + 6] = right;
+        texCoords[t + 7] = bottom;
+    }
+}
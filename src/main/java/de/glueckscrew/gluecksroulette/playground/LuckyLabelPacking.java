@@ -0,0 +1,113 @@
+package de.glueckscrew.gluecksroulette.playground;
+
+import lombok.Getter;
+
+/**
+ * Places the labels of the segments into the texture of a LuckyLabelAtlas, row by row.
+ * All labels share the font, so every row is as high as a label. If the labels don't fit into the largest texture,
+ * they are drawn smaller until they do, labels that don't fit even at MIN_SCALE are not packed at all.
+ *
+ * Nothing here touches JavaFX, so the labels of a course can be packed off the FX thread.
+ *
+ * @author Sebastian Schmitt
+ */
+class LuckyLabelPacking {
+    /**
+     * largest edge of the texture in pixels
+     */
+    static final int MAX_SIZE = 4096;
+    /**
+     * transparent pixels around every label, so filtering doesn't bleed into its neighbours
+     */
+    static final int PADDING = 2;
+    private static final double SHRINK_FACTOR = .9;
+    /**
+     * labels drawn smaller than this are unreadable anyway
+     */
+    static final double MIN_SCALE = 1 / 16d;
+
+    @Getter
+    private final String[] labels;
+    // pixels per unit of the labels
+    @Getter
+    private double scale = 1;
+    @Getter
+    private int width;
+    @Getter
+    private int height;
+    // top left corner of every label in the texture, in pixels
+    private final int[] x;
+    private final int[] y;
+
+    private LuckyLabelPacking(String[] labels) {
+        this.labels = labels;
+        x = new int[labels.length];
+        y = new int[labels.length];
+    }
+
+    /**
+     * @param widths      width of every label
+     * @param labelHeight height of all labels
+     * @return null if a size isn't a finite number or the labels don't fit even at MIN_SCALE
+     */
+    static LuckyLabelPacking pack(String[] labels, double[] widths, double labelHeight, int maxSize) {
+        if (!isValidSize(labelHeight)) return null;
+        for (double width : widths) {
+            if (!isValidSize(width)) return null;
+        }
+
+        LuckyLabelPacking packing = new LuckyLabelPacking(labels);
+        while (!packing.place(widths, labelHeight, maxSize)) {
+            packing.scale *= SHRINK_FACTOR;
+            if (packing.scale < MIN_SCALE) return null;
+        }
+        return packing;
+    }
+
+    private static boolean isValidSize(double size) {
+        // false for NaN as well
+        return size >= 0 && size < Double.POSITIVE_INFINITY;
+    }
+
+    /**
+     * @return false if the labels don't fit at the current scale
+     */
+    private boolean place(double[] widths, double labelHeight, int maxSize) {
+        int rowHeight = getPixels(labelHeight);
+        int cursorX = 0;
+        int cursorY = 0;
+        width = 0;
+        for (int i = 0; i < labels.length; i++) {
+            int labelWidth = getPixels(widths[i]);
+            if (labelWidth > maxSize) return false;
+            if (cursorX + labelWidth > maxSize) {
+                cursorX = 0;
+                cursorY += rowHeight;
+            }
+            x[i] = cursorX;
+            y[i] = cursorY;
+            cursorX += labelWidth;
+            width = Math.max(width, cursorX);
+        }
+        height = labels.length == 0 ? 0 : cursorY + rowHeight;
+        return height <= maxSize;
+    }
+
+    private int getPixels(double size) {
+        return (int) Math.ceil(size * scale) + PADDING * 2;
+    }
+
+    /**
+     * @return left edge of the label itself, without the padding
+     */
+    int getX(int label) {
+        return x[label] + PADDING;
+    }
+
+    /**
+     * @return top edge of the label itself, without the padding
+     */
+    int getY(int label) {
+        return y[label] + PADDING;
+    }
+}
@@ -0,0 +1,55 @@
+package de.glueckscrew.gluecksroulette.playground;
+
+/**
+ * Level of detail of the segment meshes.
+ * A segment gets as many divisions as its rim needs to look round: the chord between two neighbouring points
+ * may deviate at most a given distance from the circle, so a sliver gets two divisions and half of the wheel
+ * a few hundred. The divisions of all segments together stay within a budget of triangles.
+ *
+ * Divisions are powers of two, small changes of the allowed deviation don't change them,
+ * so moving the camera a little doesn't rebuild any mesh
+ */
+class LuckyMeshDetail {
+    static final int MIN_DIVISIONS = 2;
+    static final int MAX_DIVISIONS = 1024;
+    /**
+     * triangles of a segment mesh per division: two of the rim and one of each cap
+     */
+    static final int TRIANGLES_PER_DIVISION = 4;
+
+    private LuckyMeshDetail() {
+    }
+
+    /**
+     * @param steps          fraction of the circumference of every segment
+     * @param radius         radius of the wheel
+     * @param maxDeviation   largest distance the rim may deviate from the circle
+     * @param triangleBudget triangles all segments may have together, unless every segment is at MIN_DIVISIONS
+     * @return divisions of every segment
+     */
+    static int[] computeDivisions(double[] steps, double radius, double maxDeviation, int triangleBudget) {
+        // a chord of the angle alpha deviates radius * (1 - cos(alpha / 2)) from the circle
+        double maxAngle = 2 * Math.acos(1 - Math.max(0, Math.min(maxDeviation / radius, 1)));
+
+        int[] divisions = new int[steps.length];
+        long triangles = 0;
+        for (int i = 0; i < steps.length; i++) {
+            double needed = Math.ceil(2 * Math.PI * steps[i] / maxAngle);
+            divisions[i] = needed >= MAX_DIVISIONS ? MAX_DIVISIONS
+                    : Math.max(MIN_DIVISIONS, Integer.highestOneBit((int) needed - 1) << 1);
+            triangles += divisions[i] * TRIANGLES_PER_DIVISION;
+        }
+
+        // halving every segment keeps the proportions between them, the largest segments give the most
+        while (triangles > triangleBudget) {
+            long halved = 0;
+            for (int i = 0; i < divisions.length; i++) {
+                divisions[i] = Math.max(MIN_DIVISIONS, divisions[i] / 2);
+                halved += divisions[i] * TRIANGLES_PER_DIVISION;
+            }
+            if (halved == triangles) break;
+            triangles = halved;
+        }
+        return divisions;
+    }
+}
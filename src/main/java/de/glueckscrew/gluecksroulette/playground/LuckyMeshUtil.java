@@ -0,0 +1,89 @@
+package de.glueckscrew.gluecksroulette.playground;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Building blocks of the round meshes of the playground.
+ * A row holds sine and cosine of evenly spaced angles, interleaved as sin0, cos0, sin1, cos1, ...
+ * The rows of full circles are computed once and shared, the rows of arcs are rotated point by point
+ * from the sine and cosine of their start and their step, so a mesh calls Math.sin and Math.cos a few times
+ * instead of for every point and texture coordinate.
+ *
+ * @author Sebastian Schmitt
+ */
+final class LuckyMeshUtil {
+    private static final Map<Integer, double[]> CIRCLES = new ConcurrentHashMap<>();
+
+    private LuckyMeshUtil() {
+    }
+
+    /**
+     * @return row of the angles 2 * PI * i / divisions for i from 0 to divisions, shared, so don't write to it
+     */
+    static double[] circle(int divisions) {
+        return CIRCLES.computeIfAbsent(divisions, key -> {
+            double[] row = new double[(divisions + 1) * 2];
+            for (int i = 0; i <= divisions; i++) {
+                double a = 2 * Math.PI * i / divisions;
+                row[i * 2] = Math.sin(a);
+                row[i * 2 + 1] = Math.cos(a);
+            }
+            return row;
+        });
+    }
+
+    /**
+     * @param row reused if it is large enough
+     * @return row of the angles start + delta * i for i below count
+     */
+    static double[] arc(double start, double delta, int count, double[] row) {
+        if (row == null || row.length < count * 2)
+            row = new double[count * 2];
+
+        double sin = Math.sin(start);
+        double cos = Math.cos(start);
+        double sinDelta = Math.sin(delta);
+        double cosDelta = Math.cos(delta);
+        for (int i = 0; i < count; i++) {
+            row[i * 2] = sin;
+            row[i * 2 + 1] = cos;
+
+            double next = sin * cosDelta + cos * sinDelta;
+            cos = cos * cosDelta - sin * sinDelta;
+            sin = next;
+        }
+        return row;
+    }
+
+    /**
+     * writes count points of a ring around the y-axis, x from the sine and z from the cosine
+     *
+     * @return position behind the ring
+     */
+    static int writeRing(float[] points, int pos, double[] row, int count, float radius, float y) {
+        for (int i = 0; i < count; i++) {
+            points[pos] = (float) (row[i * 2] * radius);
+            points[pos + 1] = y;
+            points[pos + 2] = (float) (row[i * 2 + 1] * radius);
+            pos += 3;
+        }
+        return pos;
+    }
+
+    /**
+     * writes divisions + 1 texture coordinates of a cap, the last one closes the cap at the first angle
+     *
+     * @param top true if the cap faces up, its texture is mirrored then
+     * @return position behind the texture coordinates
+     */
+    static int writeCapTexCoords(float[] texCoords, int pos, double[] row, int divisions, boolean top) {
+        for (int i = 0; i <= divisions; i++) {
+            int a = i < divisions ? i * 2 : 0;
+            texCoords[pos] = (float) (row[a] * 0.5f) + 0.5f;
+            texCoords[pos + 1] = top ? 0.5f - (float) (row[a + 1] * 0.5f) : (float) (row[a + 1] * 0.5f) + 0.5f;
+            pos += 2;
+        }
+        return pos;
+    }
+}
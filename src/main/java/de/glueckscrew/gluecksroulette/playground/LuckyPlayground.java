@@ -6,17 +6,24 @@ import de.glueckscrew.gluecksroulette.models.LuckyCourse;
 import de.glueckscrew.gluecksroulette.models.LuckyStudent;
 import de.glueckscrew.gluecksroulette.physics.LuckyPhysics;
 import de.glueckscrew.gluecksroulette.physics.LuckyPhysicsListener;
+import de.glueckscrew.gluecksroulette.physics.LuckyPhysicsWorld;
+import de.glueckscrew.gluecksroulette.physics.LuckyWheelGeometry;
 import javafx.animation.AnimationTimer;
+import javafx.application.Platform;
+import javafx.beans.InvalidationListener;
+import javafx.geometry.Point3D;
 import javafx.scene.*;
 import javafx.scene.paint.Color;
 import javafx.scene.paint.PhongMaterial;
+import javafx.scene.shape.Cylinder;
 import javafx.scene.transform.Rotate;
 import lombok.Getter;
 import lombok.Setter;
 
 import java.util.ArrayList;
 import java.util.List;
-import java.util.concurrent.TimeUnit;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ForkJoinPool;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -26,14 +33,27 @@ import java.util.logging.Logger;
 public class LuckyPlayground extends SubScene implements LuckyPhysicsListener {
     private static final Logger LOGGER = Logger.getLogger(LuckyPlayground.class.getSimpleName());
 
-    public static final int WHEEL_RADIUS = 400;
-    public static final double COLON_RADIUS = 0.25d * WHEEL_RADIUS;
+    public static final int WHEEL_RADIUS = LuckyWheelGeometry.WHEEL_RADIUS;
+    public static final double COLON_RADIUS = LuckyWheelGeometry.COLON_RADIUS;
     public static final int CAMERA_ROT_X = 0;
     public static final int CAMERA_ROT_Y = 1;
 
-    private static final long MIN_TICK_DURATION = TimeUnit.MILLISECONDS.toNanos(9);
-
-    private static final double WHEEL_DEFAULT_Y = 470.5;
+    /**
+     * Maximum steps to catch up in one frame, time beyond that is dropped so a hitch can't snowball
+     */
+    private static final int MAX_TICKS_PER_FRAME = 8;
+    /**
+     * Frames without any movement until the playground stops rendering, wake() starts it again
+     */
+    private static final int IDLE_FRAMES_UNTIL_PARKED = 30;
+    /**
+     * Pixels the rim of a segment may deviate from the circle, see LuckyMeshDetail
+     */
+    private static final double MESH_MAX_PIXEL_DEVIATION = .5;
+    private static final int MESH_TRIANGLE_BUDGET = 100_000;
+
+    public static final double WHEEL_DEFAULT_Y = LuckyWheelGeometry.WHEEL_DEFAULT_Y;
+    public static final double BALL_RADIUS = LuckyWheelGeometry.BALL_RADIUS;
 
     private static final LuckyCourse DUMMY_COURSE = new LuckyCourse("", new ArrayList<LuckyStudent>() {{
         add(new LuckyStudent("lucky student 1"));
@@ -41,24 +61,53 @@ public class LuckyPlayground extends SubScene implements LuckyPhysicsListener {
         add(new LuckyStudent("lucky student 3"));
     }});
 
+    @Getter
     private LuckyPhysics physics;
     private LuckyWheel wheel;
+    // draws all segments at once if WHEEL_MERGED_MESH is set, null otherwise
+    private LuckyWheelMesh wheelMesh;
+    // draws all labels at once if WHEEL_LABEL_ATLAS is set, null otherwise
+    private LuckyLabelAtlas labelAtlas;
     private LuckyBall ball;
+    // shown instead of the segments while the ones of a new course are built in the background
+    private Cylinder placeholder;
 
     private LuckyConfig config;
 
     private List<LuckyStudentSegment> segments;
+    private LuckySegmentIndex segmentIndex = new LuckySegmentIndex();
 
     @Setter
     private LuckyPlaygroundListener listener;
 
     @Getter
     private LuckyCourse currentCourse;
+    // counts the courses loaded, a background load is only applied if no newer one started meanwhile
+    private int courseLoads;
 
     private LuckyStudentSegment lastChangedSegment;
     private double lastProbabilityChange;
 
+    private AnimationTimer timer;
+    private int idleFrames;
+
+    /**
+     * playground of the default physics and its nodes
+     */
     public LuckyPlayground(LuckyConfig config, LuckyCourse course) {
+        this(config, course, LuckyPhysics.getInstance(), LuckyBall.getInstance(), LuckyWheel.getInstance(),
+                LuckyFrame.getInstance());
+    }
+
+    /**
+     * playground of a physics of its own, e.g. a second wheel next to the default one
+     */
+    public LuckyPlayground(LuckyConfig config, LuckyCourse course, LuckyPhysics physics) {
+        this(config, course, physics, new LuckyBall(), new LuckyWheel(), new LuckyFrame());
+    }
+
+    private LuckyPlayground(LuckyConfig config, LuckyCourse course, LuckyPhysics physics, LuckyBall ball,
+                            LuckyWheel wheel, LuckyFrame frame) {
         super(new Group(), config.getInt(LuckyConfig.Key.WINDOW_WIDTH),
                 config.getInt(LuckyConfig.Key.WINDOW_HEIGHT), true, SceneAntialiasing.BALANCED);
 
@@ -76,6 +125,19 @@ public class LuckyPlayground extends SubScene implements LuckyPhysicsListener {
         camera.setTranslateZ(config.getDouble(LuckyConfig.Key.CAMERA_Z));
         setCamera(camera);
 
+        // moving the camera wakes a parked playground up
+        InvalidationListener wakeOnChange = observable -> wake();
+        camera.getTransforms().addListener(wakeOnChange);
+        camera.translateXProperty().addListener(wakeOnChange);
+        camera.translateYProperty().addListener(wakeOnChange);
+        camera.translateZProperty().addListener(wakeOnChange);
+        // the closer the camera, the finer the segment meshes
+        InvalidationListener meshDetailOnChange = observable -> updateMeshDetail();
+        camera.getTransforms().addListener(meshDetailOnChange);
+        camera.translateXProperty().addListener(meshDetailOnChange);
+        camera.translateYProperty().addListener(meshDetailOnChange);
+        camera.translateZProperty().addListener(meshDetailOnChange);
+
         Group rootGroup = (Group) getRoot();
 
         PointLight light = new PointLight(Color.WHITE);
@@ -85,26 +147,25 @@ public class LuckyPlayground extends SubScene implements LuckyPhysicsListener {
         light.setTranslateZ(0);
         rootGroup.getChildren().add(light);
 
-        ball = LuckyBall.getInstance();
+        this.ball = ball;
         ball.setTranslateX(WHEEL_RADIUS * 0.9);
         ball.setTranslateY(460);
         ball.setTranslateZ(0);
-        ball.setRadius(10);
+        ball.setRadius(BALL_RADIUS);
         rootGroup.getChildren().add(ball);
 
-        wheel = LuckyWheel.getInstance();
+        this.wheel = wheel;
         wheel.setTranslateY(WHEEL_DEFAULT_Y);
         rootGroup.getChildren().add(wheel);
         segments = new ArrayList<>();
 
-        LuckyFrame frame = LuckyFrame.getInstance();
         frame.setInnerRadius(WHEEL_RADIUS);
         frame.setTranslateY(WHEEL_DEFAULT_Y - frame.getHeight() * .5);
         PhongMaterial frameMat = new PhongMaterial(LuckyStudentSegment.RED);
         frameMat.setSpecularColor(Color.WHITE);
         frame.setMaterial(frameMat);
 
-        physics = LuckyPhysics.getInstance();
+        this.physics = physics;
         physics.setWheel(wheel);
         physics.setBall(ball);
         physics.setFrame(frame);
@@ -112,29 +173,100 @@ public class LuckyPlayground extends SubScene implements LuckyPhysicsListener {
 
         rootGroup.getChildren().add(frame);
 
+        // clicks are hit-tested against the wheel plane by selectSegmentAt(),
+        // so JavaFX doesn't have to pick through the meshes
+        ball.setMouseTransparent(true);
+        wheel.setMouseTransparent(true);
+        frame.setMouseTransparent(true);
+        setOnMouseClicked(event -> {
+            if (event.isStillSincePress())
+                selectSegmentAt(event.getX(), event.getY());
+        });
+
         LuckyCone cone = new LuckyCone(COLON_RADIUS);
         PhongMaterial coneMat = new PhongMaterial(LuckyStudentSegment.RED);
         coneMat.setSpecularColor(Color.WHITE);
         cone.setMaterial(coneMat);
         wheel.getChildren().add(cone);
 
-        if (course != null)
-            setCurrentCourse(course);
-        else
-            setCurrentCourse(DUMMY_COURSE);
+        if (config.getBool(LuckyConfig.Key.WHEEL_MERGED_MESH)) {
+            wheelMesh = new LuckyWheelMesh();
+            wheel.getChildren().add(wheelMesh);
+        }
 
+        if (config.getBool(LuckyConfig.Key.WHEEL_LABEL_ATLAS)) {
+            labelAtlas = new LuckyLabelAtlas();
+            wheel.getChildren().add(labelAtlas);
+        }
+
+        placeholder = new Cylinder(WHEEL_RADIUS, LuckySegmentGeometry.MESH_HEIGHT * 2);
+        PhongMaterial placeholderMat = new PhongMaterial(LuckyStudentSegment.BLACK);
+        placeholderMat.setSpecularColor(Color.WHITE);
+        placeholder.setMaterial(placeholderMat);
+        placeholder.setVisible(false);
+        wheel.getChildren().add(placeholder);
+
+        // the window isn't shown yet, so the first course is built right away
+        loadCourse(course != null ? course : DUMMY_COURSE, false);
 
-        new AnimationTimer() {
-            private long lastUpdate = 0;
+        if (config.getBool(LuckyConfig.Key.PHYSICS_THREAD))
+            physics.startThread();
+
+        timer = new AnimationTimer() {
+            private long lastFrame = -1;
+            private long accumulator = 0;
 
             @Override
             public void handle(long now) {
-                if (now - lastUpdate < MIN_TICK_DURATION) return;
+                // the physics thread steps on its own, only pick up its latest state
+                if (physics.isThreaded()) {
+                    physics.syncLatest();
+                } else {
+                    step(now);
+                }
+
+                // nothing moves, stop rendering until something wakes the playground up
+                if (!physics.isIdle()) {
+                    idleFrames = 0;
+                } else if (++idleFrames >= IDLE_FRAMES_UNTIL_PARKED) {
+                    stop();
+                    lastFrame = -1;
+                    accumulator = 0;
+                }
+            }
+
+            private void step(long now) {
+                if (lastFrame < 0) lastFrame = now;
+
+                accumulator += now - lastFrame;
+                lastFrame = now;
+
+                int steps = (int) (accumulator / LuckyPhysics.TICK_DURATION);
+                if (steps > MAX_TICKS_PER_FRAME) {
+                    steps = MAX_TICKS_PER_FRAME;
+                    accumulator = steps * LuckyPhysics.TICK_DURATION;
+                }
+
+                if (steps > 0) {
+                    physics.tick(steps);
+                    accumulator -= steps * LuckyPhysics.TICK_DURATION;
+                }
 
-                physics.tick();
-                lastUpdate = now;
+                // render the time left in the accumulator as a blend of the last two steps
+                physics.sync((double) accumulator / LuckyPhysics.TICK_DURATION);
             }
-        }.start();
+        };
+        timer.start();
+    }
+
+    /**
+     * starts rendering again after the playground parked itself, see IDLE_FRAMES_UNTIL_PARKED
+     */
+    public void wake() {
+        idleFrames = 0;
+        // a no-op if the timer is still running
+        if (timer != null)
+            timer.start();
     }
 
     public LuckyStudent getSelectedStudent() {
@@ -186,86 +318,280 @@ public class LuckyPlayground extends SubScene implements LuckyPhysicsListener {
     }
 
     public void turnSegmentToBall(LuckyStudentSegment segment) {
+        wake();
         double startDeg = (segment.getOffset()) * 360;
         double endDeg = (segment.getOffset() + segment.getStep()) * 360;
 
-        Rotate rotate = (Rotate) wheel.getTransforms().get(0);
-
-        // set angle required to turn center of segment to where the ball is
-        rotate.setAngle((360 + checkBallPosition() - (startDeg + endDeg) / 2) % 360);
+        // set angle required to turn center of segment to where the ball is,
+        // the world is the source of truth, the nodes follow with the next sync
+        physics.setWheelAngle((360 + checkBallPosition() - (startDeg + endDeg) / 2) % 360);
     }
 
     private LuckyStudentSegment getSegmentWithBall() {
-        // get wheel rotation
-        Rotate rotate = (Rotate) wheel.getTransforms().get(0);
-        // rotation angle along positive y
-        double wheelDeg = rotate.getAngle();
+        // rotation angle of the wheel along positive y
+        double wheelDeg = physics.getWheelAngle();
 
         // get ball angle relative to wheel rotation
         // add 360 so we get positive (modulus) over possibly negative remainder
         double deg = (360 + checkBallPosition() - wheelDeg) % 360;
 
-        for (LuckyStudentSegment segment : segments) {
-            double startDeg = (segment.getOffset()) * 360;
-            double endDeg = (segment.getOffset() + segment.getStep()) * 360;
-            if (startDeg <= deg && deg < endDeg) {
-                return segment;
+        LuckyStudentSegment segment = getSegmentAt(deg / 360);
+        if (segment == null)
+            LOGGER.log(Level.SEVERE, "no segment containing the ball found, skipping!");
+        return segment;
+    }
+
+    /**
+     * @param fraction fraction of the wheel circumference, relative to the wheel rotation
+     * @return segment covering the fraction or null if there are no segments
+     */
+    private LuckyStudentSegment getSegmentAt(double fraction) {
+        int index = segmentIndex.indexAt(fraction);
+        if (index < 0 || index >= segments.size()) return null;
+        return segments.get(index);
+    }
+
+    /**
+     * selects the segment below a point of the playground, as if the ball had stopped on it.
+     * The ray through the point is intersected with the wheel plane, the segment at that angle
+     * is looked up in the segment index
+     *
+     * @param x x-coordinate within the playground
+     * @param y y-coordinate within the playground
+     * @return false if the wheel is spinning or the point isn't on the segments
+     */
+    public boolean selectSegmentAt(double x, double y) {
+        if (physics.isSpinning()) return false;
+        if (!(getCamera() instanceof PerspectiveCamera)) return false;
+        PerspectiveCamera camera = (PerspectiveCamera) getCamera();
+
+        Point3D eye = camera.localToScene(getWidth() / 2, getHeight() / 2, -getFocalLength(camera));
+        Point3D direction = camera.localToScene(x, y, 0).subtract(eye);
+
+        // looking along or away from the wheel plane
+        double t = (wheel.getTranslateY() - eye.getY()) / direction.getY();
+        if (!(t > 0)) return false;
+
+        double hitX = eye.getX() + direction.getX() * t;
+        double hitZ = eye.getZ() + direction.getZ() * t;
+        double distance = Math.hypot(hitX, hitZ);
+        if (distance < COLON_RADIUS || distance > WHEEL_RADIUS) return false;
+
+        double deg = (360 + LuckyPhysicsWorld.getBallAngle(hitX, hitZ) - physics.getWheelAngle()) % 360;
+        LuckyStudentSegment segment = getSegmentAt(deg / 360);
+        if (segment == null) return false;
+
+        lastChangedSegment = segment;
+        lastProbabilityChange = segment.getLuckyStudent().getWeight();
+        if (listener != null)
+            listener.onSegmentSelected();
+        return true;
+    }
+
+    /**
+     * distance of the eye of the camera to its plane z = 0, the eye is placed so that the pixels
+     * map one to one onto that plane
+     */
+    private double getFocalLength(PerspectiveCamera camera) {
+        double halfSize = (camera.isVerticalFieldOfView() ? getHeight() : getWidth()) / 2;
+        return halfSize / Math.tan(Math.toRadians(camera.getFieldOfView() / 2));
+    }
+
+    /**
+     * @param steps step of every segment
+     * @return divisions of every segment mesh for the current camera distance
+     */
+    private int[] computeMeshDivisions(double[] steps) {
+        // without a perspective the wheel is drawn one to one
+        double maxDeviation = MESH_MAX_PIXEL_DEVIATION;
+        if (getCamera() instanceof PerspectiveCamera) {
+            PerspectiveCamera camera = (PerspectiveCamera) getCamera();
+            double focalLength = getFocalLength(camera);
+            Point3D eye = camera.localToScene(getWidth() / 2, getHeight() / 2, -focalLength);
+            // a pixel covers more of the wheel the farther away it is, the nearest point of the wheel counts
+            double distance = Math.max(eye.distance(0, wheel.getTranslateY(), 0) - WHEEL_RADIUS, 1);
+            maxDeviation = MESH_MAX_PIXEL_DEVIATION * distance / focalLength;
+        }
+        return LuckyMeshDetail.computeDivisions(steps, WHEEL_RADIUS, maxDeviation, MESH_TRIANGLE_BUDGET);
+    }
+
+    /**
+     * rebuilds the meshes of the segments whose level of detail changed, e.g. after the camera moved
+     */
+    private void updateMeshDetail() {
+        if (segments == null || segments.isEmpty()) return;
+
+        double[] steps = new double[segments.size()];
+        for (int i = 0; i < steps.length; i++) {
+            steps[i] = segments.get(i).getStep();
+        }
+
+        int[] divisions = computeMeshDivisions(steps);
+        boolean changed = false;
+        for (int i = 0; i < divisions.length; i++) {
+            LuckyStudentSegment segment = segments.get(i);
+            if (segment.getDivisions() != divisions[i]) {
+                segment.setDivisions(divisions[i]);
+                segment.updateMesh();
+                changed = true;
             }
         }
-        LOGGER.log(Level.SEVERE, "no segment containing the ball found, skipping!");
-        return null;
+
+        if (changed && wheelMesh != null)
+            wheelMesh.update(segments);
     }
 
     private double checkBallPosition() {
-        double ballX = ball.getTranslateX();
-        double ballZ = ball.getTranslateZ();
-        double rad = Math.atan2(ballZ, ballX);
-        // resulting angle is from 0->pi and -pi->0, so make sure it goes the full circle 0->2pi
-        if (rad < 0) {
-            rad = 2*Math.PI + rad;
-        }
-        return 360 - Math.toDegrees(rad);  // return clockwise rotation angle
+        return LuckyPhysicsWorld.getBallAngle(physics.getBallX(), physics.getBallZ());
     }
 
+    /**
+     * shows a placeholder wheel and builds the segments of the course in the background,
+     * they replace the ones of the old course once they are done
+     */
     public void setCurrentCourse(LuckyCourse currentCourse) {
-        this.currentCourse = currentCourse;
+        loadCourse(currentCourse, true);
+    }
+
+    /**
+     * lays out the labels and meshes of all segments in parallel on the common fork/join pool,
+     * then swaps them in on the FX thread in one go
+     *
+     * @param background false to wait for the segments, true to show the placeholder meanwhile
+     */
+    private void loadCourse(LuckyCourse course, boolean background) {
+        this.currentCourse = course;
+        int load = ++courseLoads;
+
+        LuckySegmentLayout[] layouts = createLayouts(course);
+        // the merged wheel mesh draws the segments, they only need their labels then
+        double[] steps = wheelMesh == null ? computeSteps() : null;
+        int[] divisions = steps == null ? null : computeMeshDivisions(steps);
+
+        if (!background) {
+            ForkJoinPool.commonPool().invoke(LuckySegmentLayout.buildAll(layouts, steps, divisions));
+            applyCourse(layouts);
+            return;
+        }
 
         wheel.getChildren().removeAll(segments);
-        segments.clear();
-        for (int i = 0; i < currentCourse.getStudents().size(); i++) {
+        segments = new ArrayList<>();
+        resizeSegments();
+        placeholder.setVisible(true);
+        wake();
+
+        CompletableFuture.supplyAsync(() -> {
+            LuckySegmentLayout.buildAll(layouts, steps, divisions).invoke();
+            // the texture of the labels has to be drawn on the FX thread, where they go is known already
+            return labelAtlas == null ? null : LuckyLabelAtlas.pack(layouts);
+        }).whenCompleteAsync((packing, e) -> {
+            // a newer course was opened meanwhile
+            if (load != courseLoads) return;
+
+            if (e == null) {
+                if (packing != null)
+                    labelAtlas.setPacking(packing);
+                applyCourse(layouts);
+            } else {
+                // a failed task may leave layouts half built, the segments build fresh ones themselves
+                LOGGER.log(Level.SEVERE, "Building the segments in the background failed, "
+                        + "building them on the FX thread!", e);
+                applyCourse(createLayouts(course));
+            }
+        }, Platform::runLater);
+    }
+
+    private static LuckySegmentLayout[] createLayouts(LuckyCourse course) {
+        LuckySegmentLayout[] layouts = new LuckySegmentLayout[course.getStudents().size()];
+        for (int i = 0; i < layouts.length; i++) {
+            layouts[i] = new LuckySegmentLayout(course.getStudents().get(i));
+        }
+        return layouts;
+    }
+
+    /**
+     * creates the segments of the layouts and swaps them for the current ones
+     */
+    private void applyCourse(LuckySegmentLayout[] layouts) {
+        List<LuckyStudentSegment> loaded = new ArrayList<>(layouts.length);
+        for (int i = 0; i < layouts.length; i++) {
             Color color = i % 2 == 0 ? LuckyStudentSegment.BLACK : LuckyStudentSegment.RED;
-            if (i == currentCourse.getStudents().size() - 1 && currentCourse.getStudents().size() % 2 == 1)
+            if (i == layouts.length - 1 && layouts.length % 2 == 1)
                 color = LuckyStudentSegment.GREEN;
 
-            LuckyStudentSegment segment = new LuckyStudentSegment(currentCourse.getStudents().get(i), color);
+            LuckyStudentSegment segment = new LuckyStudentSegment(layouts[i], color);
+            if (wheelMesh != null)
+                segment.setMeshEnabled(false);
+            if (labelAtlas != null)
+                segment.setLabelEnabled(false);
 
-            segments.add(segment);
-            wheel.getChildren().add(segment);
+            loaded.add(segment);
         }
 
-
+        wheel.getChildren().removeAll(segments);
+        wheel.getChildren().addAll(loaded);
+        // the labels are blended over the segments, so they are drawn last
+        if (labelAtlas != null)
+            labelAtlas.toFront();
+        segments = loaded;
+        placeholder.setVisible(false);
+
+        // the weights may have changed while the segments were built, unchanged steps keep their meshes
         resizeSegments();
+        wake();
     }
 
-    private void resizeSegments() {
-        double lowest = currentCourse.getStudents().stream().mapToDouble(LuckyStudent::getWeight).min().orElse(1);
-        double sum = currentCourse.getStudents().stream().mapToDouble(LuckyStudent::getWeight).sum();
+    /**
+     * @return fraction of the circumference of every student of the current course
+     */
+    private double[] computeSteps() {
+        double lowest = currentCourse.getStudentWeightLowest();
+        double sum = currentCourse.getWeightSum();
 
         double factor = 1 / (sum / lowest);
+        double[] steps = new double[currentCourse.getStudents().size()];
+        for (int i = 0; i < steps.length; i++) {
+            steps[i] = currentCourse.getStudentWeight(i) / lowest * factor;
+        }
+        return steps;
+    }
+
+    private void resizeSegments() {
+        double[] steps = computeSteps();
         double offset = 0;
 
-        for (LuckyStudentSegment segment : segments) {
-            double segmentStep = segment.getLuckyStudent().getWeight() / lowest * factor;
+        segmentIndex.resize(segments.size());
+        for (int i = 0; i < segments.size(); i++) {
+            LuckyStudentSegment segment = segments.get(i);
 
-            segment.setStep(segmentStep);
+            segment.setStep(steps[i]);
             segment.setOffset(offset);
-            segment.update();
+            segmentIndex.setStart(i, offset);
+
+            offset += steps[i];
+        }
 
-            offset += segmentStep;
+        // the level of detail depends on the new steps, so the meshes are built once all steps are known
+        int[] divisions = computeMeshDivisions(steps);
+        for (int i = 0; i < segments.size(); i++) {
+            segments.get(i).setDivisions(divisions[i]);
+            segments.get(i).update();
+        }
+
+        if (wheelMesh != null)
+            wheelMesh.update(segments);
+        if (labelAtlas != null) {
+            // labels the atlas can't pack are shown by the segments themselves
+            boolean packed = labelAtlas.update(segments);
+            for (LuckyStudentSegment segment : segments) {
+                if (segment.isLabelEnabled() == packed)
+                    segment.setLabelEnabled(!packed);
+            }
         }
     }
 
     public void softReset() {
+        wake();
         if (physics.isSpinning()) {
             physics.reset();
             return;
@@ -285,6 +611,7 @@ public class LuckyPlayground extends SubScene implements LuckyPhysicsListener {
     }
 
     public void hardReset() {
+        wake();
         if (physics.isSpinning()) {
             physics.reset();
             return;
@@ -296,6 +623,20 @@ public class LuckyPlayground extends SubScene implements LuckyPhysicsListener {
     }
 
     public void spin() {
-        physics.spin();
+        wake();
+        if (config.getBool(LuckyConfig.Key.SPIN_DURATION_BOUNDED)) {
+            physics.setSpinDuration(config.getDouble(LuckyConfig.Key.SPIN_DURATION_MIN_SECONDS),
+                    config.getDouble(LuckyConfig.Key.SPIN_DURATION_MAX_SECONDS));
+        } else {
+            physics.clearSpinDuration();
+        }
+
+        if (config.getBool(LuckyConfig.Key.INSTANT_RESULT)) {
+            // the result is known right away, only the final seconds of the spin are shown
+            int replaySeconds = config.getInt(LuckyConfig.Key.INSTANT_RESULT_REPLAY_SECONDS);
+            physics.spinInstant(Math.max(0, replaySeconds) * LuckyPhysics.TICKS_PER_SECOND);
+        } else {
+            physics.spin();
+        }
     }
 }
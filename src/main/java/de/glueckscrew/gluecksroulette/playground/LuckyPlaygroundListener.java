@@ -6,4 +6,5 @@ package de.glueckscrew.gluecksroulette.playground;
 public interface LuckyPlaygroundListener {
     void onSpinStop();
     void onCourseNameChanged();
+    void onSegmentSelected();
 }
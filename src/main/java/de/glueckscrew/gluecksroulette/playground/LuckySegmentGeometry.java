@@ -0,0 +1,202 @@
+package de.glueckscrew.gluecksroulette.playground;
+
+import lombok.Getter;
+
+/**
+ * Points, texture coordinates and faces of the mesh of a LuckyStudentSegment, computed without touching JavaFX.
+ * The arrays are reused by the next build and only grow, the lengths tell how much of them is in use.
+ * The faces only depend on the divisions, so they are only rewritten if those change.
+ *
+ * @author Sebastian Schmitt
+ */
+class LuckySegmentGeometry {
+    static final float MESH_HEIGHT = 1f * 0.5f;
+
+    @Getter
+    private float[] points = new float[0];
+    @Getter
+    private int pointsLength;
+    @Getter
+    private float[] texCoords = new float[0];
+    @Getter
+    private int texCoordsLength;
+    @Getter
+    private int[] faces = new int[0];
+    @Getter
+    private int facesLength;
+    @Getter
+    private int[] smoothing = new int[0];
+    @Getter
+    private int smoothingLength;
+
+    // sines and cosines of the rim and the caps, reused like the arrays above
+    private double[] rimRow;
+    private double[] capRow;
+
+    // layout the faces were built for
+    private int faceDivisions = -1;
+    private boolean faceFullCircle;
+
+    /**
+     * @param segmentSize twice the step of the segment, 2 is the full circle
+     * @return true if the faces changed, the points and texture coordinates are always rewritten
+     */
+    boolean build(double segmentSize, int divisions) {
+        float radius = LuckyPlayground.WHEEL_RADIUS;
+        boolean fullCircle = segmentSize == 2;
+
+        final int nPonits = divisions * 2 + 2;
+        final int tcCount = (divisions + 1) * 4 + 1; // 2 cap tex
+        final int faceCount = divisions * 4;
+
+        pointsLength = nPonits * 3;
+        texCoordsLength = tcCount * 2;
+        if (points.length < pointsLength) points = new float[pointsLength];
+        if (texCoords.length < texCoordsLength) texCoords = new float[texCoordsLength];
+
+        float textureDelta = 1.f / 256;
+
+        float dA = 1.f / divisions;
+        // the last points end the segment, only a full circle closes by wrapping around to the first ones,
+        // the caps are textured as if they spanned one more division
+        double[] rim;
+        double[] cap;
+        if (fullCircle) {
+            rim = cap = LuckyMeshUtil.circle(divisions);
+        } else {
+            rim = rimRow = LuckyMeshUtil.arc(0, Math.PI * segmentSize / (divisions - 1), divisions, rimRow);
+            cap = capRow = LuckyMeshUtil.arc(0, Math.PI * segmentSize / divisions, divisions, capRow);
+        }
+
+        float[] tPoints = texCoords;
+        int pPos = 0, tPos = 0;
+
+        pPos = LuckyMeshUtil.writeRing(points, pPos, rim, divisions, radius, MESH_HEIGHT);
+        for (int i = 0; i < divisions; ++i) {
+            tPoints[tPos] = 1 - dA * i;
+            tPoints[tPos + 1] = 1 - textureDelta;
+            tPos += 2;
+        }
+
+        // top edge
+        tPoints[tPos] = 0;
+        tPoints[tPos + 1] = 1 - textureDelta;
+        tPos += 2;
+
+        pPos = LuckyMeshUtil.writeRing(points, pPos, rim, divisions, radius, -MESH_HEIGHT);
+        for (int i = 0; i < divisions; ++i) {
+            tPoints[tPos] = 1 - dA * i;
+            tPoints[tPos + 1] = textureDelta;
+            tPos += 2;
+        }
+
+        // bottom edge
+        tPoints[tPos] = 0;
+        tPoints[tPos + 1] = textureDelta;
+        tPos += 2;
+
+        // add cap central points
+        points[pPos] = 0;
+        points[pPos + 1] = MESH_HEIGHT;
+        points[pPos + 2] = 0;
+        points[pPos + 3] = 0;
+        points[pPos + 4] = -MESH_HEIGHT;
+        points[pPos + 5] = 0;
+
+        // add cap central points
+        // bottom cap
+        tPos = LuckyMeshUtil.writeCapTexCoords(tPoints, tPos, cap, divisions, false);
+
+        // top cap
+        tPos = LuckyMeshUtil.writeCapTexCoords(tPoints, tPos, cap, divisions, true);
+
+        tPoints[tPos] = .5f;
+        tPoints[tPos + 1] = .5f;
+
+        if (divisions == faceDivisions && fullCircle == faceFullCircle)
+            return false;
+
+        faceDivisions = divisions;
+        faceFullCircle = fullCircle;
+        facesLength = faceCount * 6;
+        smoothingLength = faceCount;
+        if (faces.length < facesLength) faces = new int[facesLength];
+        if (smoothing.length < smoothingLength) smoothing = new int[smoothingLength];
+
+        int fIndex = 0;
+
+        // build body faces
+        for (int p0 = 0; p0 < divisions; ++p0) {
+            int p1 = p0 + 1;
+            int p2 = p0 + divisions;
+            int p3 = p1 + divisions;
+
+            // add p0, p1, p2
+            faces[fIndex] = p0;
+            faces[fIndex + 1] = p0;
+            faces[fIndex + 2] = p2;
+            faces[fIndex + 3] = p2 + 1;
+            faces[fIndex + 4] = p1 == divisions ? 0 : p1;
+            faces[fIndex + 5] = p1;
+            fIndex += 6;
+
+            // add p3, p2, p1
+            // *faces++ = SmFace(p3,p1,p2, p3,p1,p2, 1);
+            faces[fIndex] = p3 % divisions == 0 ? p3 - divisions : p3;
+            faces[fIndex + 1] = p3 + 1;
+            faces[fIndex + 2] = p1 == divisions ? 0 : p1;
+            faces[fIndex + 3] = p1;
+            faces[fIndex + 4] = p2;
+            faces[fIndex + 5] = p2 + 1;
+            fIndex += 6;
+
+        }
+        // build cap faces
+        int tStart = (divisions + 1) * 2;
+        int t1 = (divisions + 1) * 4;
+        int p1 = divisions * 2;
+
+        // bottom cap
+        for (int p0 = 0; p0 < divisions; ++p0) {
+            int p2 = p0 + 1;
+            int t0 = tStart + p0;
+            int t2 = t0 + 1;
+
+            // add p0, p1, p2
+            faces[fIndex] = p0;
+            faces[fIndex + 1] = t0;
+            faces[fIndex + 2] = p2 == divisions ? 0 : p2;
+            faces[fIndex + 3] = t2;
+            faces[fIndex + 4] = p1;
+            faces[fIndex + 5] = t1;
+            fIndex += 6;
+        }
+
+        p1 = divisions * 2 + 1;
+        tStart = (divisions + 1) * 3;
+
+        // top cap
+        for (int p0 = 0; p0 < divisions; ++p0) {
+            int p2 = p0 + 1 + divisions;
+            int t0 = tStart + p0;
+            int t2 = t0 + 1;
+
+            //*faces++ = SmFace(p0+div+1,p1,p2, t0,t1,t2, 2);
+            faces[fIndex] = p0 + divisions;
+            faces[fIndex + 1] = t0;
+            faces[fIndex + 2] = p1;
+            faces[fIndex + 3] = t1;
+            faces[fIndex + 4] = fullCircle && p2 % divisions == 0 ? p2 - divisions : p2;
+            faces[fIndex + 5] = t2;
+            fIndex += 6;
+        }
+
+        for (int i = 0; i < divisions * 2; ++i) {
+            smoothing[i] = 1;
+        }
+        for (int i = divisions * 2; i < divisions * 4; ++i) {
+            smoothing[i] = 2;
+        }
+        return true;
+    }
+}
@@ -0,0 +1,56 @@
+package de.glueckscrew.gluecksroulette.playground;
+
+import java.util.Arrays;
+
+/**
+ * Angular index of the segments of the wheel.
+ * Keeps the fraction of the circumference every segment starts at, the starts grow along the wheel,
+ * so the segment at an angle is found by a binary search in O(log n)
+ */
+class LuckySegmentIndex {
+    private double[] starts = new double[0];
+    private int size;
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * changes the number of segments, the array is only reallocated if it grows
+     */
+    void resize(int size) {
+        if (size > starts.length)
+            starts = Arrays.copyOf(starts, size);
+        this.size = size;
+    }
+
+    /**
+     * @param start fraction of the circumference the segment starts at, not smaller than the one before
+     */
+    void setStart(int index, double start) {
+        if (index < 0 || index >= size)
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        starts[index] = start;
+    }
+
+    /**
+     * @param fraction value in [0, 1), fractions behind the last start belong to the last segment
+     * @return index of the segment covering the fraction or -1 if there are no segments
+     */
+    int indexAt(double fraction) {
+        if (size == 0) return -1;
+
+        // last segment starting at or before the fraction
+        int low = 0;
+        int high = size - 1;
+        while (low < high) {
+            int mid = (low + high + 1) >>> 1;
+            if (starts[mid] <= fraction) {
+                low = mid;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return low;
+    }
+}
@@ -0,0 +1,118 @@
+package de.glueckscrew.gluecksroulette.playground;
+
+import de.glueckscrew.gluecksroulette.models.LuckyStudent;
+import de.glueckscrew.gluecksroulette.util.LuckyTextUtil;
+import lombok.Getter;
+
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Label and mesh geometry of a LuckyStudentSegment, everything of a segment that is expensive to compute.
+ * Nothing here touches the scene graph, so the layouts of a whole course can be built in parallel
+ * off the FX thread (see buildAll()) and handed to the segments once they are done.
+ *
+ * @author Sebastian Schmitt
+ */
+class LuckySegmentLayout {
+    /**
+     * segments laid out by one leaf task, large enough to outweigh forking
+     */
+    private static final int SEGMENTS_PER_TASK = 16;
+    private static final String ELLIPSIS = "...";
+
+    @Getter
+    private final LuckyStudent luckyStudent;
+
+    // name the label was fitted for
+    @Getter
+    private String name;
+    @Getter
+    private String label;
+    @Getter
+    private double labelWidth;
+    @Getter
+    private double labelHeight;
+
+    @Getter
+    private final LuckySegmentGeometry geometry = new LuckySegmentGeometry();
+    // step and divisions the geometry was built for
+    @Getter
+    private double step = Double.NaN;
+    @Getter
+    private int divisions;
+
+    LuckySegmentLayout(LuckyStudent luckyStudent) {
+        this.luckyStudent = luckyStudent;
+    }
+
+    /**
+     * fits the name of the student into the segment, the short name is cut to its longest prefix that fits
+     */
+    void fitLabel() {
+        name = luckyStudent.getName();
+        label = name;
+        labelWidth = LuckyTextUtil.getTextLength(label, LuckyStudentSegment.FONT);
+        if (labelWidth > LuckyStudentSegment.MAX_TEXT_WIDTH) {
+            label = luckyStudent.getShortName();
+            labelWidth = LuckyTextUtil.getTextLength(label, LuckyStudentSegment.FONT);
+            if (label.length() > 4 && labelWidth > LuckyStudentSegment.MAX_TEXT_WIDTH) {
+                // display at least first letter + ... (= 4 letters)
+                int length = Math.max(1, LuckyTextUtil.getFittingPrefixLength(label, label.length() - 4,
+                        LuckyStudentSegment.FONT, LuckyStudentSegment.MAX_TEXT_WIDTH, ELLIPSIS));
+                label = label.substring(0, length) + ELLIPSIS;
+                labelWidth = LuckyTextUtil.getTextLength(label, LuckyStudentSegment.FONT);
+            }
+        }
+        labelHeight = LuckyTextUtil.getTextHeight(LuckyStudentSegment.FONT);
+    }
+
+    /**
+     * @return true if the faces of the geometry changed
+     */
+    boolean buildMesh(double step, int divisions) {
+        this.step = step;
+        this.divisions = divisions;
+        return geometry.build(step * 2, divisions);
+    }
+
+    /**
+     * @param steps     step of every segment, null to only fit the labels
+     * @param divisions divisions of every segment, ignored if steps is null
+     * @return task fitting the label and building the mesh of every layout, run it with a ForkJoinPool
+     */
+    static RecursiveAction buildAll(LuckySegmentLayout[] layouts, double[] steps, int[] divisions) {
+        return new BuildTask(layouts, steps, divisions, 0, layouts.length);
+    }
+
+    private static class BuildTask extends RecursiveAction {
+        private final LuckySegmentLayout[] layouts;
+        private final double[] steps;
+        private final int[] divisions;
+        private final int from;
+        private final int to;
+
+        BuildTask(LuckySegmentLayout[] layouts, double[] steps, int[] divisions, int from, int to) {
+            this.layouts = layouts;
+            this.steps = steps;
+            this.divisions = divisions;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= SEGMENTS_PER_TASK) {
+                for (int i = from; i < to; i++) {
+                    layouts[i].fitLabel();
+                    if (steps != null)
+                        layouts[i].buildMesh(steps[i], divisions[i]);
+                }
+                return;
+            }
+
+            int middle = (from + to) >>> 1;
+            invokeAll(new BuildTask(layouts, steps, divisions, from, middle),
+                    new BuildTask(layouts, steps, divisions, middle, to));
+        }
+    }
+}
@@ -1,7 +1,6 @@
 package de.glueckscrew.gluecksroulette.playground;
 
 import de.glueckscrew.gluecksroulette.models.LuckyStudent;
-import de.glueckscrew.gluecksroulette.util.LuckyTextUtil;
 import javafx.scene.Group;
 import javafx.scene.paint.Color;
 import javafx.scene.paint.PhongMaterial;
@@ -23,15 +22,12 @@ public class LuckyStudentSegment extends Group {
     public static final Color BLACK = Color.valueOf("#2c3e50");
     public static final Color GREEN = Color.valueOf("#2ecc71");
 
-    private static final Color TEXT_COLOR = Color.valueOf("#ecf0f1");
+    static final Color TEXT_COLOR = Color.valueOf("#ecf0f1");
     private static final int FONT_SIZE = 37;
-    private static final double TEXT_Y = -1.5;
+    static final Font FONT = new Font(FONT_SIZE);
+    static final double TEXT_Y = -1.5;
     private static final double REDUCTION_FACTOR = 0.9;
-    private static final double MAX_TEXT_WIDTH = (LuckyPlayground.WHEEL_RADIUS - LuckyPlayground.COLON_RADIUS) * REDUCTION_FACTOR;
-
-    // Resolution of mesh
-    private static final int MESH_DIVISIONS = 1000;
-    private static final float MESH_HEIGHT = 1f * 0.5f;
+    static final double MAX_TEXT_WIDTH = (LuckyPlayground.WHEEL_RADIUS - LuckyPlayground.COLON_RADIUS) * REDUCTION_FACTOR;
 
 
     @Getter
@@ -44,236 +40,160 @@ public class LuckyStudentSegment extends Group {
     @Getter
     @Setter
     private double step;
-    @Setter
+    @Getter
     private Color color;
+    // Resolution of mesh, chosen by the playground once the step is known, see LuckyMeshDetail
+    @Getter
+    @Setter
+    private int divisions = LuckyMeshDetail.MIN_DIVISIONS;
     private Text text;
     @Getter
     private MeshView meshView;
+    // false if the segment is drawn by a LuckyWheelMesh, it only shows its label then
+    @Getter
+    private boolean meshEnabled = true;
+    // false if the label is drawn by a LuckyLabelAtlas
+    @Getter
+    private boolean labelEnabled = true;
+
+    // the nodes are kept for the lifetime of the segment, an update only changes their values
+    private final TriangleMesh mesh = new TriangleMesh();
+    private final PhongMaterial material;
+    private final Rotate textRotate = new Rotate(0, Rotate.Y_AXIS);
+    private final Rotate meshRotate = new Rotate(0, Rotate.Y_AXIS);
+
+    // label and geometry the nodes show, see update()
+    private final LuckySegmentLayout layout;
 
     public LuckyStudentSegment(LuckyStudent luckyStudent, Color color) {
-        this.luckyStudent = luckyStudent;
+        this(new LuckySegmentLayout(luckyStudent), color);
+    }
+
+    /**
+     * segment of a layout that may already be built, e.g. in the background by LuckySegmentLayout.buildAll(),
+     * its label and mesh are taken over as they are
+     */
+    LuckyStudentSegment(LuckySegmentLayout layout, Color color) {
+        this.luckyStudent = layout.getLuckyStudent();
+        this.layout = layout;
         this.color = color;
 
         text = new Text();
         text.setTranslateY(TEXT_Y);
-        text.setFont(new Font(FONT_SIZE));
+        text.setFont(FONT);
         text.setFill(TEXT_COLOR);
         text.setSmooth(true);
+        text.getTransforms().add(textRotate);
+        text.getTransforms().add(new Rotate(-90, Rotate.X_AXIS));
         getChildren().add(text);
 
-        meshView = new MeshView();
+        material = new PhongMaterial(color);
+        material.setSpecularColor(Color.WHITE);
+
+        meshView = new MeshView(mesh);
         meshView.setDrawMode(DrawMode.FILL);
         meshView.setTranslateY(0);
         meshView.setTranslateX(0);
         meshView.setTranslateZ(0);
+        meshView.setMaterial(material);
+        meshView.getTransforms().add(meshRotate);
         getChildren().add(meshView);
 
+        if (layout.getName() != null)
+            applyLabel();
+        if (!Double.isNaN(layout.getStep())) {
+            step = layout.getStep();
+            divisions = layout.getDivisions();
+            applyMesh(true);
+        }
         update();
     }
 
+    /**
+     * brings label and mesh to the current offset and step.
+     * The label is only measured again if the name changed, the mesh is only rebuilt if the step changed,
+     * a segment that only moved along the wheel just gets new angles
+     */
     public void update() {
-        text.setText(luckyStudent.getName());
-        double textWidth = LuckyTextUtil.getTextLength(text);
-        if (textWidth > MAX_TEXT_WIDTH) {
-            text.setText(luckyStudent.getShortName());
-            textWidth = LuckyTextUtil.getTextLength(text);
-            // display at least first letter + ... (= 4 letters)
-            while (text.getText().length() > 4 && textWidth > MAX_TEXT_WIDTH) {
-                text.setText(text.getText().substring(0, text.getText().length() - 4) + "...");
-                textWidth = LuckyTextUtil.getTextLength(text);
-            }
+        if (!luckyStudent.getName().equals(layout.getName())) {
+            layout.fitLabel();
+            applyLabel();
         }
 
-        Pair<Double, Double> position = calculatePosition(offset + step/2,
-                LuckyPlayground.COLON_RADIUS + (MAX_TEXT_WIDTH - textWidth) / 2,
-                LuckyTextUtil.getTextHeight(text) / 4);
-        text.setTranslateX(position.getKey());
-        text.setTranslateZ(position.getValue());
-
-        text.getTransforms().clear();
-        text.getTransforms().add(new Rotate((offset + step/2) * 360, Rotate.Y_AXIS));
-        text.getTransforms().add(new Rotate(-90, Rotate.X_AXIS));
-
-
-        meshView.setMesh(createMesh(step * 2));
-
-        meshView.getTransforms().clear();
-        meshView.getTransforms().add(new Rotate((offset * 360) + 90, Rotate.Y_AXIS));
+        if (labelEnabled) {
+            Pair<Double, Double> position = calculatePosition(offset + step/2,
+                    LuckyPlayground.COLON_RADIUS + (MAX_TEXT_WIDTH - layout.getLabelWidth()) / 2,
+                    layout.getLabelHeight() / 4);
+            text.setTranslateX(position.getKey());
+            text.setTranslateZ(position.getValue());
+            textRotate.setAngle((offset + step/2) * 360);
+        }
 
-        PhongMaterial mat = new PhongMaterial(color);
-        mat.setSpecularColor(Color.WHITE);
-        meshView.setMaterial(mat);
+        updateMesh();
+        meshRotate.setAngle((offset * 360) + 90);
     }
 
-
-    private static Pair<Double, Double> calculatePosition(double step, double length, double height) {
-        double t = ((-step) * 360) / 180 * Math.PI - Math.asin(height/length);
-        double x = Math.cos(t) * length;
-        double y = Math.sin(t) * length;
-
-        return new Pair<>(x, y);
+    private void applyLabel() {
+        text.setText(layout.getLabel());
     }
 
-    private static TriangleMesh createMesh(double segmentSize) {
-        float radius = LuckyPlayground.WHEEL_RADIUS;
-
-        final int nPonits = MESH_DIVISIONS * 2 + 2;
-        final int tcCount = (MESH_DIVISIONS + 1) * 4 + 1; // 2 cap tex
-        final int faceCount = MESH_DIVISIONS * 4;
-
-        float textureDelta = 1.f / 256;
-
-        float dA = 1.f / MESH_DIVISIONS;
-
-        float[] points = new float[nPonits * 3];
-        float[] tPoints = new float[tcCount * 2];
-        int[] faces = new int[faceCount * 6];
-        int[] smoothing = new int[faceCount];
-
-        int pPos = 0, tPos = 0;
-
-        for (int i = 0; i < MESH_DIVISIONS; ++i) {
-            double a = dA * i * Math.PI * segmentSize;
-
-            points[pPos] = (float) (Math.sin(a) * radius);
-            points[pPos + 2] = (float) (Math.cos(a) * radius);
-            points[pPos + 1] = MESH_HEIGHT;
-            tPoints[tPos] = 1 - dA * i;
-            tPoints[tPos + 1] = 1 - textureDelta;
-            pPos += 3;
-            tPos += 2;
-        }
-
-        // top edge
-        tPoints[tPos] = 0;
-        tPoints[tPos + 1] = 1 - textureDelta;
-        tPos += 2;
-
-        for (int i = 0; i < MESH_DIVISIONS; ++i) {
-            double a = dA * i * Math.PI * segmentSize;
-            points[pPos] = (float) (Math.sin(a) * radius);
-            points[pPos + 2] = (float) (Math.cos(a) * radius);
-            points[pPos + 1] = -MESH_HEIGHT;
-            tPoints[tPos] = 1 - dA * i;
-            tPoints[tPos + 1] = textureDelta;
-            pPos += 3;
-            tPos += 2;
-        }
-
-        // bottom edge
-        tPoints[tPos] = 0;
-        tPoints[tPos + 1] = textureDelta;
-        tPos += 2;
-
-        // add cap central points
-        points[pPos] = 0;
-        points[pPos + 1] = MESH_HEIGHT;
-        points[pPos + 2] = 0;
-        points[pPos + 3] = 0;
-        points[pPos + 4] = -MESH_HEIGHT;
-        points[pPos + 5] = 0;
-
-        // add cap central points
-        // bottom cap
-        for (int i = 0; i <= MESH_DIVISIONS; ++i) {
-            double a = (i < MESH_DIVISIONS) ? (dA * i * segmentSize) * Math.PI : 0;
-            tPoints[tPos] = (float) (Math.sin(a) * 0.5f) + 0.5f;
-            tPoints[tPos + 1] = (float) (Math.cos(a) * 0.5f) + 0.5f;
-            tPos += 2;
-        }
-
-        // top cap
-        for (int i = 0; i <= MESH_DIVISIONS; ++i) {
-            double a = (i < MESH_DIVISIONS) ? (dA * i * segmentSize) * Math.PI : 0;
-            tPoints[tPos] = 0.5f + (float) (Math.sin(a) * 0.5f);
-            tPoints[tPos + 1] = 0.5f - (float) (Math.cos(a) * 0.5f);
-            tPos += 2;
-        }
-
-        tPoints[tPos] = .5f;
-        tPoints[tPos + 1] = .5f;
-
-        int fIndex = 0;
-
-        // build body faces
-        for (int p0 = 0; p0 < MESH_DIVISIONS; ++p0) {
-            int p1 = p0 + 1;
-            int p2 = p0 + MESH_DIVISIONS;
-            int p3 = p1 + MESH_DIVISIONS;
+    String getLabel() {
+        return layout.getLabel();
+    }
 
-            // add p0, p1, p2
-            faces[fIndex] = p0;
-            faces[fIndex + 1] = p0;
-            faces[fIndex + 2] = p2;
-            faces[fIndex + 3] = p2 + 1;
-            faces[fIndex + 4] = p1 == MESH_DIVISIONS ? 0 : p1;
-            faces[fIndex + 5] = p1;
-            fIndex += 6;
+    double getLabelWidth() {
+        return layout.getLabelWidth();
+    }
 
-            // add p3, p2, p1
-            // *faces++ = SmFace(p3,p1,p2, p3,p1,p2, 1);
-            faces[fIndex] = p3 % MESH_DIVISIONS == 0 ? p3 - MESH_DIVISIONS : p3;
-            faces[fIndex + 1] = p3 + 1;
-            faces[fIndex + 2] = p1 == MESH_DIVISIONS ? 0 : p1;
-            faces[fIndex + 3] = p1;
-            faces[fIndex + 4] = p2;
-            faces[fIndex + 5] = p2 + 1;
-            fIndex += 6;
+    double getLabelHeight() {
+        return layout.getLabelHeight();
+    }
 
-        }
-        // build cap faces
-        int tStart = (MESH_DIVISIONS + 1) * 2;
-        int t1 = (MESH_DIVISIONS + 1) * 4;
-        int p1 = MESH_DIVISIONS * 2;
+    public void setLabelEnabled(boolean labelEnabled) {
+        this.labelEnabled = labelEnabled;
+        text.setVisible(labelEnabled);
+        update();
+    }
 
-        // bottom cap
-        for (int p0 = 0; p0 < MESH_DIVISIONS; ++p0) {
-            int p2 = p0 + 1;
-            int t0 = tStart + p0;
-            int t2 = t0 + 1;
+    public void setColor(Color color) {
+        this.color = color;
+        material.setDiffuseColor(color);
+    }
 
-            // add p0, p1, p2
-            faces[fIndex] = p0;
-            faces[fIndex + 1] = t0;
-            faces[fIndex + 2] = p2 == MESH_DIVISIONS ? 0 : p2;
-            faces[fIndex + 3] = t2;
-            faces[fIndex + 4] = p1;
-            faces[fIndex + 5] = t1;
-            fIndex += 6;
-        }
+    public void setMeshEnabled(boolean meshEnabled) {
+        this.meshEnabled = meshEnabled;
+        meshView.setVisible(meshEnabled);
+        meshView.setMesh(meshEnabled ? mesh : null);
+        updateMesh();
+    }
 
-        p1 = MESH_DIVISIONS * 2 + 1;
-        tStart = (MESH_DIVISIONS + 1) * 3;
 
-        // top cap
-        for (int p0 = 0; p0 < MESH_DIVISIONS; ++p0) {
-            int p2 = p0 + 1 + MESH_DIVISIONS;
-            int t0 = tStart + p0;
-            int t2 = t0 + 1;
+    /**
+     * rebuilds the mesh if the step or the divisions changed since it was last built,
+     * the arrays of the geometry are reused
+     */
+    public void updateMesh() {
+        if (!meshEnabled) return;
+        if (step == layout.getStep() && divisions == layout.getDivisions()) return;
 
-            //*faces++ = SmFace(p0+div+1,p1,p2, t0,t1,t2, 2);
-            faces[fIndex] = p0 + MESH_DIVISIONS;
-            faces[fIndex + 1] = t0;
-            faces[fIndex + 2] = p1;
-            faces[fIndex + 3] = t1;
-            faces[fIndex + 4] = segmentSize == 2 && p2 % MESH_DIVISIONS == 0 ? p2 - MESH_DIVISIONS : p2;
-            faces[fIndex + 5] = t2;
-            fIndex += 6;
-        }
+        applyMesh(layout.buildMesh(step, divisions));
+    }
 
-        for (int i = 0; i < MESH_DIVISIONS * 2; ++i) {
-            smoothing[i] = 1;
-        }
-        for (int i = MESH_DIVISIONS * 2; i < MESH_DIVISIONS * 4; ++i) {
-            smoothing[i] = 2;
+    private void applyMesh(boolean facesChanged) {
+        LuckySegmentGeometry geometry = layout.getGeometry();
+        mesh.getPoints().setAll(geometry.getPoints(), 0, geometry.getPointsLength());
+        mesh.getTexCoords().setAll(geometry.getTexCoords(), 0, geometry.getTexCoordsLength());
+        if (facesChanged) {
+            mesh.getFaces().setAll(geometry.getFaces(), 0, geometry.getFacesLength());
+            mesh.getFaceSmoothingGroups().setAll(geometry.getSmoothing(), 0, geometry.getSmoothingLength());
         }
+    }
 
-        TriangleMesh m = new TriangleMesh();
-        m.getPoints().setAll(points);
-        m.getTexCoords().setAll(tPoints);
-        m.getFaces().setAll(faces);
-        m.getFaceSmoothingGroups().setAll(smoothing);
+    private static Pair<Double, Double> calculatePosition(double step, double length, double height) {
+        double t = ((-step) * 360) / 180 * Math.PI - Math.asin(height/length);
+        double x = Math.cos(t) * length;
+        double y = Math.sin(t) * length;
 
-        return m;
+        return new Pair<>(x, y);
     }
 }
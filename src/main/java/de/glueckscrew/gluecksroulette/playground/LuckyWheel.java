@@ -6,7 +6,7 @@ import lombok.Setter;
 
 /**
  * This class extends the javafx-group-class by rotationSpeed.
- * implemented as singleton
+ * getInstance() returns the wheel of the default playground
  *
  * @author Paul Weisser
  */
@@ -19,7 +19,7 @@ public class LuckyWheel extends Group {
     @Setter
     private double rotationSpeed = 0;
 
-    private LuckyWheel() {
+    public LuckyWheel() {
 
     }
 
@@ -0,0 +1,198 @@
+package de.glueckscrew.gluecksroulette.playground;
+
+import javafx.scene.image.WritableImage;
+import javafx.scene.paint.Color;
+import javafx.scene.paint.PhongMaterial;
+import javafx.scene.shape.DrawMode;
+import javafx.scene.shape.MeshView;
+import javafx.scene.shape.TriangleMesh;
+
+import java.util.List;
+
+/**
+ * All segments of the wheel in one mesh instead of a MeshView per student,
+ * so the wheel is drawn with a single draw call whatever the size of the course.
+ * Every segment is a fan of its top and its outer rim, the colour of a segment is a pixel of a tiny palette texture
+ * its faces point to with their texture coordinates.
+ *
+ * Every segment owns a range of points. If only the offsets and steps of the segments change,
+ * only the ranges of the segments that moved are rewritten. The faces are rebuilt only if the number of segments,
+ * their divisions or their colours change.
+ *
+ * @author Sebastian Schmitt
+ */
+public class LuckyWheelMesh extends MeshView {
+    private static final Color[] PALETTE = {LuckyStudentSegment.BLACK, LuckyStudentSegment.RED,
+            LuckyStudentSegment.GREEN};
+    private static final int SMOOTHING_RIM = 1;
+    private static final int SMOOTHING_TOP = 2;
+
+    private final TriangleMesh mesh = new TriangleMesh();
+
+    // layout the points were last written for, see update()
+    private int segmentCount;
+    private int[] divisions = new int[0];
+    private int[] colors = new int[0];
+    private double[] offsets = new double[0];
+    private double[] steps = new double[0];
+    private int[] firstPoints = new int[0];
+
+    // reused between the updates
+    private float[] points = new float[0];
+    private int[] faces = new int[0];
+    private int[] smoothing = new int[0];
+    private double[] rim;
+
+    public LuckyWheelMesh() {
+        WritableImage palette = new WritableImage(PALETTE.length, 1);
+        float[] texCoords = new float[PALETTE.length * 2];
+        for (int i = 0; i < PALETTE.length; i++) {
+            palette.getPixelWriter().setColor(i, 0, PALETTE[i]);
+            // the center of the pixel, so filtering doesn't blend in the neighbouring colour
+            texCoords[i * 2] = (i + .5f) / PALETTE.length;
+            texCoords[i * 2 + 1] = .5f;
+        }
+        mesh.getTexCoords().setAll(texCoords);
+
+        PhongMaterial material = new PhongMaterial(Color.WHITE);
+        material.setDiffuseMap(palette);
+        material.setSpecularColor(Color.WHITE);
+        setMaterial(material);
+
+        setDrawMode(DrawMode.FILL);
+        setMesh(mesh);
+    }
+
+    /**
+     * brings the mesh to the current offsets, steps, divisions and colours of the segments
+     */
+    public void update(List<LuckyStudentSegment> segments) {
+        if (isLayoutChanged(segments)) {
+            rebuild(segments);
+            return;
+        }
+
+        for (int i = 0; i < segmentCount; i++) {
+            LuckyStudentSegment segment = segments.get(i);
+            if (offsets[i] == segment.getOffset() && steps[i] == segment.getStep()) continue;
+
+            writePoints(i, segment);
+            int first = firstPoints[i] * 3;
+            mesh.getPoints().set(first, points, first, getPointCount(divisions[i]) * 3);
+        }
+    }
+
+    private boolean isLayoutChanged(List<LuckyStudentSegment> segments) {
+        if (segments.size() != segmentCount) return true;
+
+        for (int i = 0; i < segmentCount; i++) {
+            LuckyStudentSegment segment = segments.get(i);
+            if (divisions[i] != segment.getDivisions() || colors[i] != getPaletteIndex(segment.getColor()))
+                return true;
+        }
+        return false;
+    }
+
+    private void rebuild(List<LuckyStudentSegment> segments) {
+        segmentCount = segments.size();
+        if (divisions.length < segmentCount) {
+            divisions = new int[segmentCount];
+            colors = new int[segmentCount];
+            offsets = new double[segmentCount];
+            steps = new double[segmentCount];
+            firstPoints = new int[segmentCount];
+        }
+
+        // the first point is the center of the top, all segments share it
+        int pointCount = 1;
+        int faceCount = 0;
+        for (int i = 0; i < segmentCount; i++) {
+            LuckyStudentSegment segment = segments.get(i);
+            divisions[i] = segment.getDivisions();
+            colors[i] = getPaletteIndex(segment.getColor());
+            firstPoints[i] = pointCount;
+            pointCount += getPointCount(divisions[i]);
+            faceCount += divisions[i] * 3;
+        }
+
+        if (points.length < pointCount * 3)
+            points = new float[pointCount * 3];
+        if (faces.length < faceCount * 6) {
+            faces = new int[faceCount * 6];
+            smoothing = new int[faceCount];
+        }
+
+        points[0] = 0;
+        points[1] = -LuckySegmentGeometry.MESH_HEIGHT;
+        points[2] = 0;
+        int face = 0;
+        for (int i = 0; i < segmentCount; i++) {
+            writePoints(i, segments.get(i));
+            face = writeFaces(i, face);
+        }
+
+        mesh.getPoints().setAll(points, 0, pointCount * 3);
+        mesh.getFaces().setAll(faces, 0, faceCount * 6);
+        mesh.getFaceSmoothingGroups().setAll(smoothing, 0, faceCount);
+    }
+
+    /**
+     * writes the top rim and then the bottom rim of the segment into its range of points,
+     * laid out like the mesh of LuckyStudentSegment after its rotation
+     */
+    private void writePoints(int segmentIndex, LuckyStudentSegment segment) {
+        offsets[segmentIndex] = segment.getOffset();
+        steps[segmentIndex] = segment.getStep();
+
+        int rimPoints = divisions[segmentIndex] + 1;
+        double start = Math.toRadians(segment.getOffset() * 360 + 90);
+        double arc = 2 * Math.PI * segment.getStep() / divisions[segmentIndex];
+        rim = LuckyMeshUtil.arc(start, arc, rimPoints, rim);
+
+        int top = LuckyMeshUtil.writeRing(points, firstPoints[segmentIndex] * 3, rim, rimPoints,
+                LuckyPlayground.WHEEL_RADIUS, -LuckySegmentGeometry.MESH_HEIGHT);
+        LuckyMeshUtil.writeRing(points, top, rim, rimPoints, LuckyPlayground.WHEEL_RADIUS,
+                LuckySegmentGeometry.MESH_HEIGHT);
+    }
+
+    /**
+     * writes the faces of the segment, wound like the ones of LuckyStudentSegment
+     *
+     * @return index of the next face
+     */
+    private int writeFaces(int segmentIndex, int face) {
+        int top = firstPoints[segmentIndex];
+        int bottom = top + divisions[segmentIndex] + 1;
+        int color = colors[segmentIndex];
+
+        for (int j = 0; j < divisions[segmentIndex]; j++) {
+            face = writeFace(face, top + j, 0, top + j + 1, color, SMOOTHING_TOP);
+            face = writeFace(face, bottom + j, top + j, bottom + j + 1, color, SMOOTHING_RIM);
+            face = writeFace(face, top + j + 1, bottom + j + 1, top + j, color, SMOOTHING_RIM);
+        }
+        return face;
+    }
+
+    private int writeFace(int face, int p0, int p1, int p2, int texCoord, int smoothingGroup) {
+        int i = face * 6;
+        faces[i] = p0;
+        faces[i + 1] = texCoord;
+        faces[i + 2] = p1;
+        faces[i + 3] = texCoord;
+        faces[i + 4] = p2;
+        faces[i + 5] = texCoord;
+        smoothing[face] = smoothingGroup;
+        return face + 1;
+    }
+
+    private static int getPointCount(int divisions) {
+        return (divisions + 1) * 2;
+    }
+
+    private static int getPaletteIndex(Color color) {
+        for (int i = 0; i < PALETTE.length; i++) {
+            if (PALETTE[i].equals(color)) return i;
+        }
+        return 0;
+    }
+}
@@ -1,19 +1,151 @@
 package de.glueckscrew.gluecksroulette.util;
 
+import com.sun.javafx.tk.FontLoader;
 import com.sun.javafx.tk.Toolkit;
+import javafx.scene.text.Font;
 import javafx.scene.text.Text;
 
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
 /**
  * Utility for Text objects
  *
+ * The width of a string is the sum of the advances of its glyphs, like the font loader computes it.
+ * The advances are measured once per font and glyph, the widths of the strings measured last are kept as well,
+ * so laying out the labels of a course measures every glyph only once.
+ * The caches may be used from any thread.
+ *
  * @author Sebastian Schmitt
  */
 public class LuckyTextUtil {
+    /**
+     * measured strings kept per font
+     */
+    private static final int STRING_CACHE_SIZE = 1024;
+    /**
+     * glyphs of these chars are kept in an array, all others in a map
+     */
+    private static final int ARRAY_GLYPHS = 256;
+
+    private static final Map<Font, Glyphs> GLYPHS = new ConcurrentHashMap<>();
+
     public static double getTextLength(Text text) {
-        return Toolkit.getToolkit().getFontLoader().computeStringWidth(text.getText(), text.getFont());
+        return getTextLength(text.getText(), text.getFont());
+    }
+
+    /**
+     * measures a string without a Text node, so labels can be laid out off the FX thread
+     */
+    public static double getTextLength(String text, Font font) {
+        return getGlyphs(font).getWidth(text);
     }
 
     public static double getTextHeight(Text text) {
-        return Toolkit.getToolkit().getFontLoader().getFontMetrics(text.getFont()).getLineHeight();
+        return getTextHeight(text.getFont());
+    }
+
+    public static double getTextHeight(Font font) {
+        return getGlyphs(font).lineHeight;
+    }
+
+    /**
+     * finds the longest prefix of the text that fits into the width together with the suffix
+     * by a binary search over the widths of the prefixes
+     *
+     * @param maxLength longest prefix to consider
+     * @return length of the prefix, 0 if not even the suffix alone fits
+     */
+    public static int getFittingPrefixLength(String text, int maxLength, Font font, double maxWidth, String suffix) {
+        Glyphs glyphs = getGlyphs(font);
+        maxLength = Math.min(maxLength, text.length());
+
+        // widths[i] is the width of the prefix of length i, never decreasing
+        double[] widths = new double[maxLength + 1];
+        for (int i = 0; i < maxLength; i++) {
+            widths[i + 1] = widths[i] + glyphs.getAdvance(text, i);
+        }
+
+        double available = maxWidth - glyphs.getWidth(suffix);
+        int low = 0;
+        int high = maxLength;
+        while (low < high) {
+            int middle = (low + high + 1) >>> 1;
+            if (widths[middle] <= available) {
+                low = middle;
+            } else {
+                high = middle - 1;
+            }
+        }
+        return low;
+    }
+
+    private static Glyphs getGlyphs(Font font) {
+        return GLYPHS.computeIfAbsent(font, Glyphs::new);
+    }
+
+    /**
+     * glyph advances, line height and the last measured strings of a font
+     */
+    private static class Glyphs {
+        private final Font font;
+        private final FontLoader fontLoader = Toolkit.getToolkit().getFontLoader();
+        private final double lineHeight;
+
+        // NaN until measured, a glyph measured twice by racing threads gets the same advance
+        private final float[] arrayAdvances = new float[ARRAY_GLYPHS];
+        private final Map<Integer, Float> mapAdvances = new ConcurrentHashMap<>();
+        private final Map<String, Double> widths = Collections.synchronizedMap(
+                new LinkedHashMap<String, Double>(STRING_CACHE_SIZE, .75f, true) {
+                    @Override
+                    protected boolean removeEldestEntry(Map.Entry<String, Double> eldest) {
+                        return size() > STRING_CACHE_SIZE;
+                    }
+                });
+
+        Glyphs(Font font) {
+            this.font = font;
+            lineHeight = fontLoader.getFontMetrics(font).getLineHeight();
+            Arrays.fill(arrayAdvances, Float.NaN);
+        }
+
+        double getWidth(String text) {
+            Double width = widths.get(text);
+            if (width != null) return width;
+
+            double sum = 0;
+            for (int i = 0; i < text.length(); i++) {
+                sum += getAdvance(text, i);
+            }
+            widths.put(text, sum);
+            return sum;
+        }
+
+        /**
+         * @return advance of the char at the index, a surrogate pair counts at its first char
+         */
+        float getAdvance(String text, int index) {
+            char c = text.charAt(index);
+            if (Character.isLowSurrogate(c) && index > 0 && Character.isHighSurrogate(text.charAt(index - 1)))
+                return 0;
+
+            int codePoint = text.codePointAt(index);
+            if (codePoint < ARRAY_GLYPHS) {
+                float advance = arrayAdvances[codePoint];
+                if (Float.isNaN(advance)) {
+                    advance = measure(codePoint);
+                    arrayAdvances[codePoint] = advance;
+                }
+                return advance;
+            }
+            return mapAdvances.computeIfAbsent(codePoint, this::measure);
+        }
+
+        private float measure(int codePoint) {
+            return fontLoader.computeStringWidth(new String(Character.toChars(codePoint)), font);
+        }
     }
 }
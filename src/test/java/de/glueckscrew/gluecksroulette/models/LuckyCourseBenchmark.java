@@ -0,0 +1,118 @@
+package de.glueckscrew.gluecksroulette.models;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * JMH comparison of the weight tree behind LuckyCourse against scanning the student list,
+ * the way the playground used to look up the segment containing the ball.
+ * The list baselines run on plain name and weight holders, so they measure the old list path
+ * and not the views on the store of the course.
+ *
+ * Run with main() from the test classpath.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LuckyCourseBenchmark {
+    @Param({"100", "10000", "100000"})
+    private int courseSize;
+
+    private LuckyCourse course;
+    private List<LuckyStudent> students;
+    private List<PlainStudent> plainStudents;
+    private Random random;
+
+    @Setup
+    public void setUp() {
+        random = new Random(42);
+        students = new ArrayList<>(courseSize);
+        plainStudents = new ArrayList<>(courseSize);
+        for (int i = 0; i < courseSize; i++) {
+            int weight = 1 + random.nextInt(4);
+            students.add(new LuckyStudent("student " + i, weight));
+            plainStudents.add(new PlainStudent("student " + i, weight));
+        }
+        course = new LuckyCourse("Benchmark Course", students);
+    }
+
+    @Benchmark
+    public int drawTree() {
+        return course.getStudentIndexAt(random.nextDouble());
+    }
+
+    @Benchmark
+    public int drawListScan() {
+        double sum = 0;
+        for (PlainStudent student : plainStudents) {
+            sum += student.weight;
+        }
+
+        double fraction = random.nextDouble();
+        double offset = 0;
+        for (int i = 0; i < plainStudents.size(); i++) {
+            double step = plainStudents.get(i).weight / sum;
+            if (offset <= fraction && fraction < offset + step) {
+                return i;
+            }
+            offset += step;
+        }
+        return -1;
+    }
+
+    @Benchmark
+    public double setWeightTree() {
+        LuckyStudent student = students.get(random.nextInt(courseSize));
+        return course.setStudentWeight(student, 1 + random.nextInt(4));
+    }
+
+    @Benchmark
+    public double setWeightListScan() {
+        PlainStudent student = plainStudents.get(random.nextInt(courseSize));
+        student.weight = 1 + random.nextInt(4);
+
+        double sum = 0;
+        for (PlainStudent other : plainStudents) {
+            sum += other.weight;
+        }
+        return sum;
+    }
+
+    /**
+     * student like before the store, nothing but a name and a weight
+     */
+    private static class PlainStudent {
+        private final String name;
+        private double weight;
+
+        PlainStudent(String name, double weight) {
+            this.name = name;
+            this.weight = weight;
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(LuckyCourseBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -1,9 +1,12 @@
 package de.glueckscrew.gluecksroulette.models;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Random;
 import org.junit.Test;
 
 /**
@@ -12,6 +15,7 @@ import org.junit.Test;
  * @author Florian Dahlitz
  */
 public class LuckyCourseTest {
+    private static final double DELTA = 0.0002;
 
     @Test
     public void testGetter() {
@@ -52,6 +56,23 @@ public class LuckyCourseTest {
         assertEquals(expectedStudents, course.getStudents());
     }
 
+    @Test
+    public void testStudentsAreReusedViews() {
+        // given
+        LuckyStudent bob = new LuckyStudent("Bob");
+        List<LuckyStudent> students = new ArrayList<>();
+        students.add(bob);
+        students.add(new LuckyStudent("Alice", 2.6));
+
+        // when
+        LuckyCourse course = new LuckyCourse("Sample Course", students);
+
+        // then
+        assertSame(bob, course.getStudents().get(0));
+        assertSame(course.getStudents().get(1), course.getStudents().get(1));
+        assertSame(course.getStudents(), course.getStudents());
+    }
+
     @Test
     public void testSerialize() {
         // given
@@ -87,4 +108,90 @@ public class LuckyCourseTest {
         // then
         assertEquals(expected, actual);
     }
+
+    @Test
+    public void testStudentIndexFollowsWeightChanges() {
+        // given
+        List<LuckyStudent> students = new ArrayList<>();
+        students.add(new LuckyStudent("Bob"));
+        students.add(new LuckyStudent("Alice"));
+        LuckyCourse course = new LuckyCourse("Sample Course", students);
+
+        // when
+        course.enlarge(students.get(0), 3);
+
+        // then
+        assertEquals(4, course.getWeightSum(), DELTA);
+        assertEquals(0, course.getStudentIndexAt(0.7));
+        assertEquals(1, course.getStudentIndexAt(0.75));
+    }
+
+    @Test
+    public void testStudentsAreViewsOnCourse() {
+        // given
+        List<LuckyStudent> students = new ArrayList<>();
+        students.add(new LuckyStudent("Bob"));
+        students.add(new LuckyStudent("Alice", 2.6));
+        LuckyCourse course = new LuckyCourse("Sample Course", students);
+
+        // when
+        students.get(1).setWeight(3.0);
+        course.getStudents().get(0).setName("Carol");
+
+        // then
+        assertEquals(3.0, course.getStudentWeight(1), DELTA);
+        assertEquals(4.0, course.getWeightSum(), DELTA);
+        assertEquals("Carol", students.get(0).getName());
+    }
+
+    @Test
+    public void testAggregatesFollowWeightChanges() {
+        // given
+        List<LuckyStudent> students = new ArrayList<>();
+        students.add(new LuckyStudent("Bob"));
+        students.add(new LuckyStudent("Alice"));
+        students.add(new LuckyStudent("Carol"));
+        LuckyCourse course = new LuckyCourse("Sample Course", students);
+
+        // when
+        course.reduce(students.get(0), 4);
+        course.reduce(students.get(1), 2);
+        course.enlarge(students.get(0), 4);
+
+        // then
+        assertEquals(1, course.getCountStudentWeightLow());
+        assertEquals(0.5, course.getStudentWeightLowest(), DELTA);
+        assertEquals(2.5, course.getWeightSum(), DELTA);
+    }
+
+    @Test
+    public void testLongThinningSessionKeepsPrecision() {
+        for (int manualWeight : new int[]{0, 2, 3}) {
+            // given
+            Random random = new Random(42);
+            List<LuckyStudent> students = new ArrayList<>();
+            for (int i = 0; i < 30; i++) {
+                students.add(new LuckyStudent("Student " + i, 1 + random.nextInt(30) / 10d));
+            }
+            LuckyCourse course = new LuckyCourse("Sample Course", students);
+
+            for (int reduction = 0; reduction < 3000; reduction++) {
+                // when
+                course.reduce(course.getStudents().get(random.nextInt(30)), manualWeight);
+
+                // then
+                double[] prefixes = new double[31];
+                for (int i = 0; i < 30; i++) {
+                    prefixes[i + 1] = prefixes[i] + course.getStudentWeight(i);
+                }
+                double sum = prefixes[30];
+                assertEquals(sum, course.getWeightSum(), sum * 1e-8);
+
+                double fraction = random.nextDouble();
+                int index = course.getStudentIndexAt(fraction);
+                assertTrue(prefixes[index] <= fraction * sum + sum * 1e-8);
+                assertTrue(fraction * sum < prefixes[index + 1] + sum * 1e-8);
+            }
+        }
+    }
 }
@@ -0,0 +1,48 @@
+package de.glueckscrew.gluecksroulette.models;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+/**
+ * Test class to test the LuckyMinTree aggregate.
+ */
+public class LuckyMinTreeTest {
+    private static final double DELTA = 0.0002;
+
+    @Test
+    public void testMin() {
+        // given
+        LuckyMinTree tree = new LuckyMinTree(new double[]{3, 1, 4, 1.5, 5});
+
+        // when
+        double actual = tree.getMin();
+
+        // then
+        assertEquals(1, actual, DELTA);
+    }
+
+    @Test
+    public void testSet() {
+        // given
+        LuckyMinTree tree = new LuckyMinTree(new double[]{3, 1, 4, 1.5, 5});
+
+        // when
+        tree.set(1, 6);
+
+        // then
+        assertEquals(1.5, tree.getMin(), DELTA);
+    }
+
+    @Test
+    public void testEmpty() {
+        // given
+        LuckyMinTree tree = new LuckyMinTree(new double[0]);
+
+        // when
+        double actual = tree.getMin();
+
+        // then
+        assertEquals(Double.POSITIVE_INFINITY, actual, DELTA);
+    }
+}
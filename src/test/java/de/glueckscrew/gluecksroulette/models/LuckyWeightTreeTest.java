@@ -0,0 +1,150 @@
+package de.glueckscrew.gluecksroulette.models;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Random;
+import org.junit.Test;
+
+/**
+ * Test class to test the LuckyWeightTree sampling engine.
+ */
+public class LuckyWeightTreeTest {
+    private static final double DELTA = 0.0002;
+
+    @Test
+    public void testPrefixSum() {
+        // given
+        LuckyWeightTree tree = new LuckyWeightTree(new double[]{1, 2, 3, 4, 5});
+
+        // when
+        double total = tree.getTotal();
+
+        // then
+        assertEquals(15, total, DELTA);
+        assertEquals(0, tree.prefixSum(0), DELTA);
+        assertEquals(1, tree.prefixSum(1), DELTA);
+        assertEquals(6, tree.prefixSum(3), DELTA);
+        assertEquals(15, tree.prefixSum(5), DELTA);
+    }
+
+    @Test
+    public void testFind() {
+        // given
+        LuckyWeightTree tree = new LuckyWeightTree(new double[]{1, 2, 3, 4, 5});
+
+        // when
+
+        // then
+        assertEquals(0, tree.find(0));
+        assertEquals(0, tree.find(0.99));
+        assertEquals(1, tree.find(1));
+        assertEquals(2, tree.find(5.5));
+        assertEquals(4, tree.find(14.99));
+        assertEquals(4, tree.find(20));
+    }
+
+    @Test
+    public void testFindSkipsEmptyWeights() {
+        // given
+        LuckyWeightTree tree = new LuckyWeightTree(new double[]{1, 0, 0, 1});
+
+        // when
+        int actual = tree.find(1);
+
+        // then
+        assertEquals(3, actual);
+    }
+
+    @Test
+    public void testAdd() {
+        // given
+        LuckyWeightTree tree = new LuckyWeightTree(new double[]{1, 1, 1, 1});
+
+        // when
+        tree.add(2, 3);
+
+        // then
+        assertEquals(7, tree.getTotal(), DELTA);
+        assertEquals(2, tree.prefixSum(2), DELTA);
+        assertEquals(6, tree.prefixSum(3), DELTA);
+        assertEquals(2, tree.find(2));
+        assertEquals(2, tree.find(5.9));
+        assertEquals(3, tree.find(6));
+    }
+
+    @Test
+    public void testDrawFollowsWeights() {
+        // given
+        LuckyWeightTree tree = new LuckyWeightTree(new double[]{1, 3});
+        Random random = new Random(42);
+        int[] hits = new int[2];
+
+        // when
+        for (int i = 0; i < 100000; i++) {
+            hits[tree.draw(random)]++;
+        }
+
+        // then
+        assertEquals(0.25, hits[0] / 100000d, 0.01);
+        assertEquals(0.75, hits[1] / 100000d, 0.01);
+    }
+
+    @Test
+    public void testLargeChangesAreReportedAsDrift() {
+        // given
+        double[] weights = {0.3, 1.7, 2.9, 0.1};
+        LuckyWeightTree tree = new LuckyWeightTree(weights);
+
+        // when
+        tree.add(1, 1e12 - weights[1]);
+        tree.add(1, weights[1] - 1e12);
+
+        // then
+        assertTrue(tree.isDrifted());
+        tree.rebuild(weights, weights.length);
+        assertFalse(tree.isDrifted());
+        assertEquals(5.0, tree.getTotal(), 1e-12);
+        assertEquals(2.0, tree.prefixSum(2), 1e-12);
+    }
+
+    @Test
+    public void testRebuildOnDriftKeepsSumsPrecise() {
+        // given
+        Random random = new Random(42);
+        double[] weights = new double[37];
+        for (int i = 0; i < weights.length; i++) {
+            weights[i] = 0.1 + random.nextDouble() * 9.9;
+        }
+        LuckyWeightTree tree = new LuckyWeightTree(weights);
+
+        for (int cycle = 0; cycle < 20000; cycle++) {
+            // when
+            // weights grow and shrink by many orders of magnitude, like in a long session of reductions
+            int index = random.nextInt(weights.length);
+            double weight = weights[index] * Math.pow(10, random.nextInt(13) - 6);
+            weight = Math.max(1e-200, Math.min(1e200, weight));
+            tree.add(index, weight - weights[index]);
+            weights[index] = weight;
+            if (tree.isDrifted())
+                tree.rebuild(weights, weights.length);
+
+            // then
+            double[] prefixes = new double[weights.length + 1];
+            for (int i = 0; i < weights.length; i++) {
+                prefixes[i + 1] = prefixes[i] + weights[i];
+            }
+            double total = prefixes[weights.length];
+            assertEquals(total, tree.getTotal(), total * 1e-8);
+
+            int k = random.nextInt(weights.length + 1);
+            assertEquals(prefixes[k], tree.prefixSum(k), total * 1e-8);
+
+            double target = random.nextDouble() * total;
+            int found = tree.find(target);
+            assertTrue(prefixes[found] <= target + total * 1e-8);
+            assertTrue(target < prefixes[found + 1] + total * 1e-8);
+        }
+    }
+}
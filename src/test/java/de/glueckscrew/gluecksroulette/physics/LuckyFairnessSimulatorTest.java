@@ -0,0 +1,45 @@
+package de.glueckscrew.gluecksroulette.physics;
+
+import static org.junit.Assert.assertEquals;
+
+import de.glueckscrew.gluecksroulette.models.LuckyCourse;
+import de.glueckscrew.gluecksroulette.models.LuckyStudent;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.Test;
+
+/**
+ * Test class to test the headless LuckyFairnessSimulator.
+ */
+public class LuckyFairnessSimulatorTest {
+    private static final double DELTA = 1e-6;
+
+    @Test
+    public void testEverySpinIsCounted() {
+        // given
+        List<LuckyStudent> students = new ArrayList<>();
+        students.add(new LuckyStudent("student 1", 1));
+        students.add(new LuckyStudent("student 2", 2));
+        students.add(new LuckyStudent("student 3", 4));
+        LuckyFairnessSimulator simulator = new LuckyFairnessSimulator(new LuckyCourse("test", students));
+
+        // when
+        long[] hits = simulator.run(5000);
+
+        // then
+        assertEquals(students.size() + 1, hits.length);
+        long total = 0;
+        for (long hit : hits) {
+            total += hit;
+        }
+        assertEquals(5000, total);
+    }
+
+    @Test
+    public void testPValue() {
+        // critical values of the chi-square distribution at a significance of 5%
+        assertEquals(.05, LuckyFairnessSimulator.getPValue(3.841459, 1), DELTA);
+        assertEquals(.05, LuckyFairnessSimulator.getPValue(18.307038, 10), DELTA);
+        assertEquals(1, LuckyFairnessSimulator.getPValue(0, 4), DELTA);
+    }
+}
@@ -0,0 +1,87 @@
+package de.glueckscrew.gluecksroulette.physics;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Test class to test that LuckyPhysicsBatch steps its balls like LuckyPhysicsWorld.
+ */
+public class LuckyPhysicsBatchTest {
+    private static final int BALLS = 64;
+
+    private LuckyPhysicsWorld world;
+
+    @Before
+    public void setUp() {
+        world = new LuckyPhysicsWorld();
+        world.setBallRadius(10);
+        world.setWheelY(470.5);
+        world.setFrameHeight(0.25 * LuckyWheelGeometry.WHEEL_RADIUS);
+        world.reset();
+    }
+
+    @Test
+    public void testBallsMoveLikeWorlds() {
+        // given
+        LuckyPhysicsBatch batch = new LuckyPhysicsBatch(world, BALLS);
+        LuckyPhysicsWorld[] worlds = new LuckyPhysicsWorld[BALLS];
+        for (int i = 0; i < BALLS; i++) {
+            worlds[i] = world.copy();
+            worlds[i].spin(i, i % 2 == 0);
+            batch.spin(i, i, i % 2 == 0);
+        }
+
+        // when
+        for (int i = 0; i < BALLS; i++) {
+            worlds[i].tick(300);
+        }
+        batch.tick(300);
+
+        // then
+        for (int i = 0; i < BALLS; i++) {
+            assertEquals(worlds[i].getBallX(), batch.getBallX(i), 0);
+            assertEquals(worlds[i].getBallY(), batch.getBallY(i), 0);
+            assertEquals(worlds[i].getBallZ(), batch.getBallZ(i), 0);
+            assertEquals(worlds[i].getWheelAngle(), batch.getWheelAngle(i), 0);
+            assertEquals(worlds[i].getInterpolatedBallX(.5), batch.getInterpolatedBallX(i, .5), 0);
+        }
+    }
+
+    @Test
+    public void testBallsStopLikeWorlds() {
+        // given
+        long[] worldStops = new long[BALLS];
+        double[] worldFractions = new double[BALLS];
+        long[] batchStops = new long[BALLS];
+        double[] batchFractions = new double[BALLS];
+        LuckyPhysicsBatch batch = new LuckyPhysicsBatch(world, BALLS);
+        batch.setListener(ball -> {
+            batchStops[ball] = batch.getSteps(ball);
+            batchFractions[ball] = batch.getBallFraction(ball);
+        });
+
+        // when
+        for (int i = 0; i < BALLS; i++) {
+            LuckyPhysicsWorld single = world.copy();
+            int ball = i;
+            single.setListener(() -> {
+                worldStops[ball] = single.getSteps();
+                worldFractions[ball] = single.getBallFraction();
+            });
+            single.spin(BALLS + i);
+            single.tick(2000);
+            batch.spin(i, BALLS + i, false);
+        }
+        batch.tick(2000);
+
+        // then
+        for (int i = 0; i < BALLS; i++) {
+            assertFalse(batch.isSpinning(i));
+            assertEquals(worldStops[i], batchStops[i]);
+            assertEquals(worldFractions[i], batchFractions[i], 0);
+        }
+    }
+}
@@ -0,0 +1,310 @@
+package de.glueckscrew.gluecksroulette.physics;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Test class to test the headless LuckyPhysicsWorld simulation.
+ */
+public class LuckyPhysicsTest {
+    private static final double DELTA = 1e-9;
+    private static final int WARM_UP_TICKS = 20000;
+    private static final int FEW_STEPS = 10;
+    private static final int MANY_STEPS = 10000;
+    // default spin duration window of LuckyConfig
+    private static final long DEFAULT_MIN_SPIN_STEPS = 6 * LuckyPhysics.TICKS_PER_SECOND;
+    private static final long DEFAULT_MAX_SPIN_STEPS = 8 * LuckyPhysics.TICKS_PER_SECOND;
+    private static final int CONSECUTIVE_SPINS = 200;
+
+    private LuckyPhysicsWorld world;
+
+    @Before
+    public void setUp() {
+        world = new LuckyPhysicsWorld();
+        world.setBallRadius(10);
+        world.setWheelY(470.5);
+        world.setFrameHeight(0.25 * LuckyWheelGeometry.WHEEL_RADIUS);
+        world.reset();
+    }
+
+    @Test
+    public void testSpinStops() {
+        // given
+        world.spin(42);
+
+        // when
+        world.tick(100000);
+
+        // then
+        assertFalse(world.isSpinning());
+    }
+
+    @Test
+    public void testSpinWithSeedIsReproducible() {
+        // given
+        LuckyPhysicsWorld replay = new LuckyPhysicsWorld();
+        replay.setBallRadius(world.getBallRadius());
+        replay.setWheelY(world.getWheelY());
+        replay.setFrameHeight(world.getFrameHeight());
+        replay.reset();
+
+        // when
+        world.spin();
+        replay.spin(world.getLastSeed());
+        world.tick(1000);
+        replay.tick(1000);
+
+        // then
+        assertEquals(world.getBallX(), replay.getBallX(), 0);
+        assertEquals(world.getBallZ(), replay.getBallZ(), 0);
+        assertEquals(world.getWheelAngle(), replay.getWheelAngle(), 0);
+    }
+
+    @Test
+    public void testInstantSpinStopsLikeLiveSpin() {
+        // given
+        double[] liveStop = new double[2];
+        double[] instantStop = new double[2];
+        double[] replayStop = new double[2];
+        LuckyInstantSpin instantSpin = LuckyInstantSpin.simulate(world, 42, 120);
+
+        // when
+        world.setListener(() -> recordStop(world, liveStop));
+        world.spin(42);
+        world.tick(100000);
+
+        LuckyPhysicsWorld beforeStop = instantSpin.getBeforeStop().copy();
+        beforeStop.setListener(() -> recordStop(beforeStop, instantStop));
+        beforeStop.tick(1);
+
+        LuckyPhysicsWorld replay = instantSpin.getReplayStart().copy();
+        replay.setListener(() -> recordStop(replay, replayStop));
+        replay.tick(121);
+
+        // then
+        assertEquals(liveStop[0], instantStop[0], 0);
+        assertEquals(liveStop[1], instantStop[1], 0);
+        assertEquals(liveStop[0], replayStop[0], 0);
+        assertEquals(liveStop[1], replayStop[1], 0);
+        assertFalse(replay.isSpinning());
+    }
+
+    @Test
+    public void testSolvedSpinStopsWithinWindow() {
+        // given
+        long[] stopStep = {-1};
+        LuckySpinLaunch launch = LuckySpinDurationSolver.solve(world, 42, 420, 432);
+
+        // when
+        world.setListener(() -> stopStep[0] = world.getSteps());
+        launch.spin(world);
+        world.tick(1000);
+
+        // then
+        assertTrue(stopStep[0] >= 420);
+        assertTrue(stopStep[0] <= 432);
+    }
+
+    @Test
+    public void testConsecutiveSolvedSpinsStopWithinDefaultWindow() {
+        // given
+        long[] stopStep = {-1};
+        world.setListener(() -> stopStep[0] = world.getSteps());
+        LuckyRandom random = LuckyRandom.create(42);
+        int hits = 0;
+
+        // when
+        for (int spin = 0; spin < CONSECUTIVE_SPINS; spin++) {
+            stopStep[0] = -1;
+            LuckySpinDurationSolver.solve(world, random.nextLong(), DEFAULT_MIN_SPIN_STEPS, DEFAULT_MAX_SPIN_STEPS)
+                    .spin(world);
+            while (world.isSpinning()) {
+                world.tick(FEW_STEPS);
+            }
+            if (stopStep[0] >= DEFAULT_MIN_SPIN_STEPS && stopStep[0] <= DEFAULT_MAX_SPIN_STEPS) ++hits;
+        }
+
+        // then
+        assertTrue(hits >= 0.95 * CONSECUTIVE_SPINS);
+    }
+
+    @Test
+    public void testRandomPhaseTurnsWheelBeforeFirstStep() {
+        // given
+        LuckyPhysicsWorld withoutPhase = world.copy();
+        withoutPhase.spin(42, false);
+
+        // when
+        world.spin(42, true);
+
+        // then
+        assertTrue(world.getWheelAngle() != withoutPhase.getWheelAngle());
+        assertEquals(world.getWheelAngle(), world.getInterpolatedWheelAngle(0), DELTA);
+        assertEquals(withoutPhase.getWheelSpeed(), world.getWheelSpeed(), DELTA);
+    }
+
+    @Test
+    public void testFastBallDoesNotTunnel() {
+        // given
+        double border = LuckyWheelGeometry.WHEEL_RADIUS + world.getFrameHeight();
+        world.setBallPosition(390, world.getWheelY() - world.getBallRadius(), 0);
+        world.setVelocityX(40);
+        world.setVelocityZ(10);
+
+        for (int i = 0; i < 100; i++) {
+            // when
+            world.tick(1);
+
+            // then
+            double distance = Math.hypot(world.getBallX(), world.getBallZ());
+            double height = world.getWheelY() - world.getBallY();
+            assertTrue(height >= world.getBallRadius() - DELTA);
+            assertTrue(height >= distance - LuckyWheelGeometry.WHEEL_RADIUS + world.getBallRadius() * Math.sqrt(2) - DELTA);
+            assertTrue(distance <= border + DELTA);
+        }
+    }
+
+    @Test
+    public void testFallingBallLandsOnFloor() {
+        // given
+        double floor = world.getWheelY() - world.getBallRadius();
+        world.setBallPosition(200, world.getWheelY() - 2000, 100);
+        world.setVelocityX(1);
+        world.setVelocityY(0);
+        world.setVelocityZ(0);
+
+        for (int i = 0; i < 1000; i++) {
+            // when
+            world.tick(1);
+
+            // then
+            assertTrue(world.getBallY() <= floor + DELTA);
+        }
+        assertEquals(floor, world.getBallY(), 1);
+    }
+
+    @Test
+    public void testWorldsSpinConcurrently() throws Exception {
+        // given
+        int worlds = 8;
+        double[] expected = new double[worlds];
+        for (int i = 0; i < worlds; i++) {
+            LuckyPhysicsWorld sequential = world.copy();
+            sequential.spin(i);
+            sequential.tick(1000);
+            expected[i] = sequential.getBallFraction();
+        }
+
+        // when
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        List<Future<Double>> results = new ArrayList<>();
+        for (int i = 0; i < worlds; i++) {
+            long seed = i;
+            LuckyPhysicsWorld concurrent = world.copy();
+            results.add(executor.submit(() -> {
+                concurrent.spin(seed);
+                concurrent.tick(1000);
+                return concurrent.getBallFraction();
+            }));
+        }
+        executor.shutdown();
+
+        // then
+        for (int i = 0; i < worlds; i++) {
+            assertEquals(expected[i], results.get(i).get(), 0);
+        }
+    }
+
+    @Test
+    public void testInterpolationFollowsLastStep() {
+        // given
+        world.spin(42);
+        world.tick(5);
+
+        // when
+        double previousX = world.getPreviousBallX();
+        double currentX = world.getBallX();
+
+        // then
+        assertEquals(previousX, world.getInterpolatedBallX(0), DELTA);
+        assertEquals(currentX, world.getInterpolatedBallX(1), DELTA);
+        assertEquals((previousX + currentX) / 2, world.getInterpolatedBallX(.5), DELTA);
+    }
+
+    @Test
+    public void testInterpolatedWheelAngleWraps() {
+        // given
+        world.setWheelAngle(350);
+        world.setWheelSpeed(20.025);
+
+        // when
+        world.tick(1);
+
+        // then
+        assertEquals(10, world.getWheelAngle(), DELTA);
+        assertEquals(0, world.getInterpolatedWheelAngle(.5), DELTA);
+        assertEquals(355, world.getInterpolatedWheelAngle(.25), DELTA);
+    }
+
+    @Test
+    public void testSnapshotKeepsStateOfStep() {
+        // given
+        world.spin(42);
+        world.tick(5);
+
+        // when
+        LuckyPhysicsSnapshot snapshot = new LuckyPhysicsSnapshot(world, 0);
+        double ballX = world.getBallX();
+        double interpolatedX = world.getInterpolatedBallX(.5);
+        world.tick(5);
+
+        // then
+        assertEquals(ballX, snapshot.getBallX(), DELTA);
+        assertEquals(interpolatedX, snapshot.getInterpolatedBallX(.5), DELTA);
+        assertTrue(snapshot.isSpinning());
+    }
+
+    @Test
+    public void testTickStepsDoNotAllocate() {
+        // given
+        com.sun.management.ThreadMXBean threadBean =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+
+        // let the JIT settle, so allocations of the interpreter don't count
+        for (int i = 0; i < 5; i++) {
+            world.spin(i);
+            world.tick(WARM_UP_TICKS);
+        }
+        world.spin(42);
+
+        // when
+        // reading the counter may allocate a constant amount itself,
+        // comparing a short against a long run leaves only what the steps allocate
+        long before = threadBean.getThreadAllocatedBytes(threadId);
+        world.tick(FEW_STEPS);
+        long fewStepsBytes = threadBean.getThreadAllocatedBytes(threadId) - before;
+
+        before = threadBean.getThreadAllocatedBytes(threadId);
+        world.tick(MANY_STEPS);
+        long manyStepsBytes = threadBean.getThreadAllocatedBytes(threadId) - before;
+
+        // then
+        assertEquals(0, Math.max(0, manyStepsBytes - fewStepsBytes));
+    }
+
+    private static void recordStop(LuckyPhysicsWorld world, double[] stop) {
+        stop[0] = world.getBallFraction();
+        stop[1] = world.getSteps();
+    }
+}
@@ -0,0 +1,52 @@
+package de.glueckscrew.gluecksroulette.physics;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+/**
+ * Test class to test the LuckyRandom generators.
+ */
+public class LuckyRandomTest {
+    private static final int VALUES = 1000;
+
+    @Test
+    public void testSameSeedSameStream() {
+        assertSameStream(new LuckyXoroshiroRandom(42), new LuckyXoroshiroRandom(42));
+        assertSameStream(new LuckySplittableRandom(42), new LuckySplittableRandom(42));
+    }
+
+    @Test
+    public void testSplitStreamDiffers() {
+        // given
+        LuckyRandom random = new LuckyXoroshiroRandom(42);
+
+        // when
+        LuckyRandom split = random.split();
+
+        // then
+        int equal = 0;
+        for (int i = 0; i < VALUES; i++) {
+            if (random.nextLong() == split.nextLong()) ++equal;
+        }
+        assertEquals(0, equal);
+    }
+
+    @Test
+    public void testNextDoubleInRange() {
+        LuckyRandom random = new LuckyXoroshiroRandom(42);
+        for (int i = 0; i < VALUES; i++) {
+            double value = random.nextDouble();
+            assertTrue(value >= 0 && value < 1);
+        }
+    }
+
+    private static void assertSameStream(LuckyRandom first, LuckyRandom second) {
+        for (int i = 0; i < VALUES; i++) {
+            assertEquals(first.nextLong(), second.nextLong());
+        }
+        assertNotEquals(first.nextLong(), first.nextLong());
+    }
+}
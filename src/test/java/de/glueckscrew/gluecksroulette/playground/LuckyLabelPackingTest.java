@@ -0,0 +1,86 @@
+package de.glueckscrew.gluecksroulette.playground;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+/**
+ * Test class to test the LuckyLabelPacking of the label texture.
+ */
+public class LuckyLabelPackingTest {
+    private static final double DELTA = 1e-9;
+
+    @Test
+    public void testLabelsFillRows() {
+        // given
+        String[] labels = {"a", "b", "c"};
+        double[] widths = {40, 40, 40};
+
+        // when
+        LuckyLabelPacking packing = LuckyLabelPacking.pack(labels, widths, 10, 100);
+
+        // then
+        int cell = 40 + LuckyLabelPacking.PADDING * 2;
+        int row = 10 + LuckyLabelPacking.PADDING * 2;
+        assertEquals(1, packing.getScale(), DELTA);
+        assertEquals(LuckyLabelPacking.PADDING, packing.getX(0));
+        assertEquals(cell + LuckyLabelPacking.PADDING, packing.getX(1));
+        assertEquals(LuckyLabelPacking.PADDING, packing.getX(2));
+        assertEquals(row + LuckyLabelPacking.PADDING, packing.getY(2));
+        assertEquals(cell * 2, packing.getWidth());
+        assertEquals(row * 2, packing.getHeight());
+    }
+
+    @Test
+    public void testLabelsShrinkToFit() {
+        // given
+        String[] labels = new String[1000];
+        double[] widths = new double[1000];
+        for (int i = 0; i < labels.length; i++) {
+            labels[i] = "student " + i;
+            widths[i] = 270;
+        }
+
+        // when
+        LuckyLabelPacking packing = LuckyLabelPacking.pack(labels, widths, 44, 1024);
+
+        // then
+        assertTrue(packing.getScale() < 1);
+        assertTrue(packing.getWidth() <= 1024);
+        assertTrue(packing.getHeight() <= 1024);
+        for (int i = 0; i < labels.length; i++) {
+            assertTrue(packing.getX(i) + widths[i] * packing.getScale() <= packing.getWidth());
+            assertTrue(packing.getY(i) + 44 * packing.getScale() <= packing.getHeight());
+        }
+    }
+
+    @Test
+    public void testLabelsThatNeverFitAreNotPacked() {
+        // given
+        String[] labels = {"a"};
+        double[] widths = {40};
+
+        // when
+        LuckyLabelPacking packing = LuckyLabelPacking.pack(labels, widths, 10, LuckyLabelPacking.PADDING * 2);
+
+        // then
+        assertNull(packing);
+    }
+
+    @Test
+    public void testInvalidSizesAreNotPacked() {
+        // given
+        String[] labels = {"a", "b"};
+
+        // when
+        LuckyLabelPacking nanWidth = LuckyLabelPacking.pack(labels, new double[]{40, Double.NaN}, 10, 100);
+        LuckyLabelPacking infiniteHeight = LuckyLabelPacking.pack(labels, new double[]{40, 40},
+                Double.POSITIVE_INFINITY, 100);
+
+        // then
+        assertNull(nanWidth);
+        assertNull(infiniteHeight);
+    }
+}
@@ -0,0 +1,103 @@
+package de.glueckscrew.gluecksroulette.playground;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * JMH comparison of building the points and texture coordinates of a segment mesh from the rows of LuckyMeshUtil
+ * against calling Math.sin and Math.cos for every point and texture coordinate, the way the meshes used to be built.
+ * The step changes with every build, like it does while the weights of a course are changed.
+ *
+ * Run with main() from the test classpath.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LuckyMeshBenchmark {
+    @Param({"16", "128", "1024"})
+    private int divisions;
+
+    private LuckySegmentGeometry geometry;
+    private float[] points;
+    private float[] texCoords;
+    private double segmentSize;
+
+    @Setup
+    public void setUp() {
+        geometry = new LuckySegmentGeometry();
+        points = new float[(divisions * 2 + 2) * 3];
+        texCoords = new float[((divisions + 1) * 4 + 1) * 2];
+        segmentSize = .1;
+    }
+
+    private double nextSegmentSize() {
+        segmentSize = segmentSize < 1 ? segmentSize + .001 : .1;
+        return segmentSize;
+    }
+
+    @Benchmark
+    public float[] buildRows() {
+        geometry.build(nextSegmentSize(), divisions);
+        return geometry.getPoints();
+    }
+
+    @Benchmark
+    public float[] buildTrigonometry() {
+        double size = nextSegmentSize();
+        float radius = LuckyPlayground.WHEEL_RADIUS;
+        float height = LuckySegmentGeometry.MESH_HEIGHT;
+        float textureDelta = 1.f / 256;
+        float dA = 1.f / divisions;
+        double arc = Math.PI * size / (divisions - 1);
+
+        int pPos = 0, tPos = 0;
+        for (int ring = 0; ring < 2; ring++) {
+            for (int i = 0; i < divisions; ++i) {
+                double a = arc * i;
+                points[pPos] = (float) (Math.sin(a) * radius);
+                points[pPos + 2] = (float) (Math.cos(a) * radius);
+                points[pPos + 1] = ring == 0 ? height : -height;
+                texCoords[tPos] = 1 - dA * i;
+                texCoords[tPos + 1] = ring == 0 ? 1 - textureDelta : textureDelta;
+                pPos += 3;
+                tPos += 2;
+            }
+            texCoords[tPos] = 0;
+            texCoords[tPos + 1] = ring == 0 ? 1 - textureDelta : textureDelta;
+            tPos += 2;
+        }
+
+        for (int cap = 0; cap < 2; cap++) {
+            for (int i = 0; i <= divisions; ++i) {
+                double a = (i < divisions) ? (dA * i * size) * Math.PI : 0;
+                texCoords[tPos] = (float) (Math.sin(a) * 0.5f) + 0.5f;
+                texCoords[tPos + 1] = cap == 0 ? (float) (Math.cos(a) * 0.5f) + 0.5f
+                        : 0.5f - (float) (Math.cos(a) * 0.5f);
+                tPos += 2;
+            }
+        }
+        return points;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(LuckyMeshBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,71 @@
+package de.glueckscrew.gluecksroulette.playground;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import org.junit.Test;
+
+/**
+ * Test class to test the LuckyMeshDetail level of detail.
+ */
+public class LuckyMeshDetailTest {
+    private static final double RADIUS = 400;
+
+    @Test
+    public void testDivisionsFollowSegmentSize() {
+        // given
+        double[] steps = {.5, .25, .001};
+
+        // when
+        int[] divisions = LuckyMeshDetail.computeDivisions(steps, RADIUS, .5, Integer.MAX_VALUE);
+
+        // then
+        assertEquals(2 * divisions[1], divisions[0]);
+        assertEquals(LuckyMeshDetail.MIN_DIVISIONS, divisions[2]);
+        // the chord of a division stays within the deviation
+        double angle = 2 * Math.PI * steps[0] / divisions[0];
+        assertTrue(RADIUS * (1 - Math.cos(angle / 2)) <= .5);
+    }
+
+    @Test
+    public void testDivisionsFollowDeviation() {
+        // given
+        double[] steps = {.5};
+
+        // when
+        int[] near = LuckyMeshDetail.computeDivisions(steps, RADIUS, .01, Integer.MAX_VALUE);
+        int[] far = LuckyMeshDetail.computeDivisions(steps, RADIUS, 1, Integer.MAX_VALUE);
+        int[] exact = LuckyMeshDetail.computeDivisions(steps, RADIUS, 0, Integer.MAX_VALUE);
+
+        // then
+        assertTrue(near[0] > far[0]);
+        assertEquals(LuckyMeshDetail.MAX_DIVISIONS, exact[0]);
+    }
+
+    @Test
+    public void testTriangleBudget() {
+        // given
+        double[] steps = new double[300];
+        for (int i = 0; i < steps.length; i++) {
+            steps[i] = i < 2 ? .4 : .2 / (steps.length - 2);
+        }
+        int budget = 5000;
+
+        // when
+        int[] divisions = LuckyMeshDetail.computeDivisions(steps, RADIUS, .01, budget);
+        int[] minimal = LuckyMeshDetail.computeDivisions(steps, RADIUS, .01, 0);
+
+        // then
+        long triangles = 0;
+        for (int division : divisions) {
+            triangles += division * LuckyMeshDetail.TRIANGLES_PER_DIVISION;
+        }
+        assertTrue(triangles <= budget);
+        assertTrue(divisions[0] > LuckyMeshDetail.MIN_DIVISIONS);
+        int[] expected = new int[steps.length];
+        Arrays.fill(expected, LuckyMeshDetail.MIN_DIVISIONS);
+        assertArrayEquals(expected, minimal);
+    }
+}
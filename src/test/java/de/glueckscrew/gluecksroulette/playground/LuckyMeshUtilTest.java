@@ -0,0 +1,56 @@
+package de.glueckscrew.gluecksroulette.playground;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import org.junit.Test;
+
+/**
+ * Test class to test the LuckyMeshUtil rows of sines and cosines.
+ */
+public class LuckyMeshUtilTest {
+    private static final double DELTA = 1e-9;
+
+    @Test
+    public void testArcMatchesTrigonometry() {
+        // given
+        double start = 1.3;
+        double delta = 2 * Math.PI / 1000;
+
+        // when
+        double[] row = LuckyMeshUtil.arc(start, delta, 1025, null);
+
+        // then
+        for (int i = 0; i < 1025; i++) {
+            assertEquals(Math.sin(start + delta * i), row[i * 2], DELTA);
+            assertEquals(Math.cos(start + delta * i), row[i * 2 + 1], DELTA);
+        }
+    }
+
+    @Test
+    public void testCircleIsShared() {
+        // when
+        double[] circle = LuckyMeshUtil.circle(64);
+
+        // then
+        assertSame(circle, LuckyMeshUtil.circle(64));
+        assertEquals(1, circle[16 * 2], DELTA);
+        assertEquals(-1, circle[32 * 2 + 1], DELTA);
+        assertEquals(0, circle[64 * 2], DELTA);
+        assertEquals(1, circle[64 * 2 + 1], DELTA);
+    }
+
+    @Test
+    public void testRowIsReused() {
+        // given
+        double[] row = new double[16];
+
+        // when
+        double[] reused = LuckyMeshUtil.arc(0, .1, 8, row);
+        double[] grown = LuckyMeshUtil.arc(0, .1, 9, row);
+
+        // then
+        assertSame(row, reused);
+        assertEquals(18, grown.length);
+    }
+}
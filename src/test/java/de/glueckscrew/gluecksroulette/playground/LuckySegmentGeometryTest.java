@@ -0,0 +1,67 @@
+package de.glueckscrew.gluecksroulette.playground;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+/**
+ * Test class to test the LuckySegmentGeometry of the segment meshes.
+ */
+public class LuckySegmentGeometryTest {
+    private static final double DELTA = 1e-3;
+
+    @Test
+    public void testRimEndsWithSegment() {
+        // given
+        LuckySegmentGeometry geometry = new LuckySegmentGeometry();
+
+        // when
+        geometry.build(.5, 8);
+
+        // then
+        float[] points = geometry.getPoints();
+        assertEquals(0, points[0], DELTA);
+        assertEquals(LuckyPlayground.WHEEL_RADIUS, points[2], DELTA);
+        assertEquals(LuckyPlayground.WHEEL_RADIUS, points[7 * 3], DELTA);
+        assertEquals(0, points[7 * 3 + 2], DELTA);
+    }
+
+    @Test
+    public void testFacesOnlyChangeWithLayout() {
+        // given
+        LuckySegmentGeometry geometry = new LuckySegmentGeometry();
+
+        // when
+        boolean first = geometry.build(.5, 8);
+        boolean otherStep = geometry.build(.6, 8);
+        boolean otherDivisions = geometry.build(.6, 16);
+        boolean fullCircle = geometry.build(2, 16);
+
+        // then
+        assertTrue(first);
+        assertFalse(otherStep);
+        assertTrue(otherDivisions);
+        assertTrue(fullCircle);
+    }
+
+    @Test
+    public void testArraysAreReused() {
+        // given
+        LuckySegmentGeometry geometry = new LuckySegmentGeometry();
+        geometry.build(.5, 16);
+        float[] points = geometry.getPoints();
+        int[] faces = geometry.getFaces();
+
+        // when
+        geometry.build(.25, 8);
+
+        // then
+        assertSame(points, geometry.getPoints());
+        assertSame(faces, geometry.getFaces());
+        assertEquals((8 * 2 + 2) * 3, geometry.getPointsLength());
+        assertEquals(8 * 4 * 6, geometry.getFacesLength());
+    }
+}
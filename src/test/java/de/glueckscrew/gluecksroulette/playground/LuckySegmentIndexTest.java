@@ -0,0 +1,65 @@
+package de.glueckscrew.gluecksroulette.playground;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+/**
+ * Test class to test the LuckySegmentIndex lookup.
+ */
+public class LuckySegmentIndexTest {
+
+    @Test
+    public void testIndexAt() {
+        // given
+        LuckySegmentIndex index = createIndex(0, .25, .5, .875);
+
+        // when
+        int first = index.indexAt(0);
+        int inside = index.indexAt(.3);
+        int onStart = index.indexAt(.875);
+        int last = index.indexAt(.99);
+
+        // then
+        assertEquals(0, first);
+        assertEquals(1, inside);
+        assertEquals(3, onStart);
+        assertEquals(3, last);
+    }
+
+    @Test
+    public void testResize() {
+        // given
+        LuckySegmentIndex index = createIndex(0, .25, .5, .875);
+
+        // when
+        index.resize(2);
+        index.setStart(1, .6);
+
+        // then
+        assertEquals(2, index.size());
+        assertEquals(0, index.indexAt(.5));
+        assertEquals(1, index.indexAt(.9));
+    }
+
+    @Test
+    public void testEmpty() {
+        // given
+        LuckySegmentIndex index = createIndex();
+
+        // when
+        int actual = index.indexAt(.5);
+
+        // then
+        assertEquals(-1, actual);
+    }
+
+    private static LuckySegmentIndex createIndex(double... starts) {
+        LuckySegmentIndex index = new LuckySegmentIndex();
+        index.resize(starts.length);
+        for (int i = 0; i < starts.length; i++) {
+            index.setStart(i, starts[i]);
+        }
+        return index;
+    }
+}
@@ -0,0 +1,112 @@
+package de.glueckscrew.gluecksroulette.playground;
+
+import de.glueckscrew.gluecksroulette.config.LuckyConfig;
+import de.glueckscrew.gluecksroulette.models.LuckyCourse;
+import de.glueckscrew.gluecksroulette.models.LuckyStudent;
+import de.glueckscrew.gluecksroulette.physics.LuckyPhysics;
+import javafx.animation.AnimationTimer;
+import javafx.application.Application;
+import javafx.application.Platform;
+import javafx.scene.Group;
+import javafx.scene.Scene;
+import javafx.stage.Stage;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Manual frame time comparison of a MeshView per segment against the merged LuckyWheelMesh,
+ * and of the latter with the labels baked into a LuckyLabelAtlas instead of a Text node per segment.
+ * Every course is shown with the wheel turning, the time between two frames is measured after a warm up.
+ *
+ * Run with main() from the test classpath, with -Dprism.vsync=false the frame times aren't capped by the display.
+ */
+public class LuckyWheelBenchmark extends Application {
+    private static final int[] COURSE_SIZES = {50, 500, 5000};
+    private static final int WARM_UP_FRAMES = 120;
+    private static final int MEASURED_FRAMES = 600;
+    private static final String[] WHEELS = {"segments", "merged", "atlas"};
+
+    private Stage stage;
+    private LuckyConfig config;
+    private int run;
+
+    @Override
+    public void start(Stage primaryStage) {
+        stage = primaryStage;
+        config = new LuckyConfig();
+        stage.setScene(new Scene(new Group(), config.getInt(LuckyConfig.Key.WINDOW_WIDTH),
+                config.getInt(LuckyConfig.Key.WINDOW_HEIGHT)));
+        stage.show();
+
+        System.out.println(String.format("%-10s %-10s %12s %12s %12s", "students", "wheel", "build ms",
+                "mean ms", "p95 ms"));
+        nextRun();
+    }
+
+    private void nextRun() {
+        if (run >= COURSE_SIZES.length * WHEELS.length) {
+            Platform.exit();
+            return;
+        }
+        int students = COURSE_SIZES[run / WHEELS.length];
+        String wheel = WHEELS[run % WHEELS.length];
+        run++;
+
+        config.set(LuckyConfig.Key.WHEEL_MERGED_MESH, !wheel.equals("segments"));
+        config.set(LuckyConfig.Key.WHEEL_LABEL_ATLAS, wheel.equals("atlas"));
+        long start = System.nanoTime();
+        LuckyPlayground playground = new LuckyPlayground(config, createCourse(students), new LuckyPhysics());
+        long build = System.nanoTime() - start;
+        stage.getScene().setRoot(new Group(playground));
+
+        long[] frameTimes = new long[MEASURED_FRAMES];
+        new AnimationTimer() {
+            private long lastFrame = -1;
+            private int frame;
+
+            @Override
+            public void handle(long now) {
+                // keep the wheel turning, so every frame has to be drawn
+                if (!playground.getPhysics().isSpinning())
+                    playground.spin();
+
+                if (lastFrame >= 0 && frame >= WARM_UP_FRAMES)
+                    frameTimes[frame - WARM_UP_FRAMES] = now - lastFrame;
+                lastFrame = now;
+
+                if (++frame == WARM_UP_FRAMES + MEASURED_FRAMES) {
+                    stop();
+                    playground.getPhysics().reset();
+                    report(students, wheel, build, frameTimes);
+                    nextRun();
+                }
+            }
+        }.start();
+    }
+
+    private static void report(int students, String wheel, long build, long[] frameTimes) {
+        Arrays.sort(frameTimes);
+        double mean = Arrays.stream(frameTimes).average().orElse(0);
+        long p95 = frameTimes[(int) (frameTimes.length * .95)];
+        double nanosPerMilli = TimeUnit.MILLISECONDS.toNanos(1);
+        System.out.println(String.format("%-10d %-10s %12.1f %12.2f %12.2f", students, wheel,
+                build / nanosPerMilli, mean / nanosPerMilli, p95 / nanosPerMilli));
+    }
+
+    private static LuckyCourse createCourse(int size) {
+        Random random = new Random(42);
+        List<LuckyStudent> students = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            students.add(new LuckyStudent("student " + i, 1 + random.nextInt(4)));
+        }
+        return new LuckyCourse("Benchmark Course", students);
+    }
+
+    public static void main(String[] args) {
+        launch(args);
+    }
+}